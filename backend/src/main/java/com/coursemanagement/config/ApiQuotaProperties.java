@@ -0,0 +1,58 @@
+package com.coursemanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-user API quota settings ({@code app.api-quota}).
+ *
+ * Every authenticated request draws its cost from the user's bucket; the first entry in
+ * {@code costs} whose method and path pattern match decides the cost.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.api-quota")
+public class ApiQuotaProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Cost units a user can spend in a burst.
+     */
+    private long capacity = 600;
+
+    /**
+     * Time in which an empty bucket refills to capacity.
+     */
+    private Duration refillPeriod = Duration.ofMinutes(1);
+
+    private long defaultCost = 1;
+
+    /**
+     * Quota buckets kept per node; idle ones are evicted beyond this.
+     */
+    private long maxBuckets = 100_000;
+
+    private List<EndpointCost> costs = new ArrayList<>();
+
+    @Data
+    public static class EndpointCost {
+
+        /**
+         * HTTP method to match, or empty for any method.
+         */
+        private String method;
+
+        /**
+         * Path pattern relative to the context path, e.g. {@code /notes/{id}}.
+         */
+        private String path;
+
+        private long cost = 1;
+    }
+}
@@ -1,5 +1,7 @@
 package com.coursemanagement.config;
 
+import com.coursemanagement.security.ApiQuotaFilter;
+import com.coursemanagement.security.HttpCookieOAuth2AuthorizationRequestRepository;
 import com.coursemanagement.security.JwtAuthenticationFilter;
 import com.coursemanagement.security.OAuth2FailureHandler;
 import com.coursemanagement.security.OAuth2SuccessHandler;
@@ -26,7 +28,9 @@ public class SecurityConfig {
         private final JwtAuthenticationFilter jwtAuthenticationFilter;
         private final OAuth2SuccessHandler oAuth2SuccessHandler;
         private final OAuth2FailureHandler oAuth2FailureHandler;
+        private final HttpCookieOAuth2AuthorizationRequestRepository authorizationRequestRepository;
         private final RateLimitingFilter rateLimitingFilter;
+        private final ApiQuotaFilter apiQuotaFilter;
         private final CorsConfigurationSource corsConfigurationSource;
 
         @Bean
@@ -35,7 +39,7 @@ public class SecurityConfig {
                                 .csrf(csrf -> csrf.disable())
                                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
                                 .sessionManagement(session -> session
-                                                .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
+                                                .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                                 .authorizeHttpRequests(auth -> auth
                                                 .requestMatchers("/auth/register", "/auth/login", "/auth/refresh").permitAll()
                                                 .requestMatchers("/oauth2/**").permitAll()
@@ -48,11 +52,16 @@ public class SecurityConfig {
                                 .exceptionHandling(ex -> ex
                                                 .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                                 .oauth2Login(oauth2 -> oauth2
+                                                // Kept in a signed cookie so any node can complete the callback
+                                                .authorizationEndpoint(endpoint -> endpoint
+                                                                .authorizationRequestRepository(authorizationRequestRepository))
                                                 .successHandler(oAuth2SuccessHandler)
                                                 .failureHandler(oAuth2FailureHandler))
                                 // Rate limiting filter runs first
                                 .addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class)
-                                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                                // Per-user quotas need the authenticated principal
+                                .addFilterAfter(apiQuotaFilter, JwtAuthenticationFilter.class);
 
                 return http.build();
         }
@@ -0,0 +1,16 @@
+package com.coursemanagement.content;
+
+/**
+ * Immutable blobs addressed by a generated key; a changed body is written under a new key.
+ */
+public interface ContentBlobStore {
+
+    /**
+     * Stores the bytes and returns their key, at most 64 characters.
+     */
+    String put(byte[] data);
+
+    byte[] get(String key);
+
+    void delete(String key);
+}
@@ -0,0 +1,72 @@
+package com.coursemanagement.content;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Blobs as files under {@code app.note-content.blob-dir}, spread over 256 subdirectories by
+ * the first two characters of their key. Files are written to a temporary name and moved
+ * into place, so a reader never sees a partial blob.
+ */
+@Component
+@Slf4j
+public class FileSystemContentBlobStore implements ContentBlobStore {
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{32}");
+
+    private final Path root;
+
+    public FileSystemContentBlobStore(@Value("${app.note-content.blob-dir:storage/note-content}") Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public String put(byte[] data) {
+        String key = UUID.randomUUID().toString().replace("-", "");
+        Path target = pathOf(key);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), key, ".tmp");
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store content blob " + key, e);
+        }
+        return key;
+    }
+
+    @Override
+    public byte[] get(String key) {
+        try {
+            return Files.readAllBytes(pathOf(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read content blob " + key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(pathOf(key));
+        } catch (IOException e) {
+            // Leaves an orphaned file behind, which costs disk space but nothing else
+            log.warn("Could not delete content blob {}", key, e);
+        }
+    }
+
+    private Path pathOf(String key) {
+        if (!KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid content blob key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+}
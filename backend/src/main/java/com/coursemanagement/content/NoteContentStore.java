@@ -0,0 +1,166 @@
+package com.coursemanagement.content;
+
+import com.coursemanagement.model.entity.Note;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decides where a note's content is stored and translates between {@link Note#getContent()}
+ * and the storage columns.
+ *
+ * Small content stays plain in {@code notes.content}. From {@code compress-threshold} on it is
+ * deflated into {@code content_data} behind a one-byte format tag, if that makes it smaller;
+ * encoded bodies of {@code spill-threshold} or more go to the {@link ContentBlobStore} and only
+ * their key is kept in {@code content_ref}. Unused columns are written as empty values rather
+ * than null, because null fields are skipped on update and would leave the old body behind.
+ */
+@Component
+@RequiredArgsConstructor
+public class NoteContentStore {
+
+    static final byte FORMAT_RAW = 0;
+    static final byte FORMAT_DEFLATE = 1;
+
+    /**
+     * Capacity of the TEXT column in bytes.
+     */
+    private static final int MAX_PLAIN_BYTES = 65_535;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ContentBlobStore blobStore;
+
+    @Value("${app.note-content.compress-threshold:4KB}")
+    private DataSize compressThreshold;
+
+    @Value("${app.note-content.spill-threshold:256KB}")
+    private DataSize spillThreshold;
+
+    /**
+     * Moves non-null content into the storage columns, leaving {@code content} empty when it
+     * is stored elsewhere. A blob written here is removed again if the transaction rolls back.
+     */
+    public void encode(Note note) {
+        if (note.getContent() == null) {
+            return;
+        }
+        byte[] raw = note.getContent().getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = raw.length >= compressThreshold.toBytes() ? deflate(raw) : null;
+
+        if (encoded == null && raw.length < Math.min(spillThreshold.toBytes(), MAX_PLAIN_BYTES)) {
+            note.setContentData(EMPTY);
+            note.setContentRef("");
+            return;
+        }
+        if (encoded == null) {
+            encoded = tagged(FORMAT_RAW, raw);
+        }
+
+        note.setContent("");
+        if (encoded.length < spillThreshold.toBytes()) {
+            note.setContentData(encoded);
+            note.setContentRef("");
+        } else {
+            String key = blobStore.put(encoded);
+            afterCompletion(false, key);
+            note.setContentData(EMPTY);
+            note.setContentRef(key);
+        }
+    }
+
+    /**
+     * Restores {@code content} from whichever column holds it and clears the storage columns.
+     */
+    public void decode(Note note) {
+        byte[] encoded = StringUtils.hasLength(note.getContentRef())
+                ? blobStore.get(note.getContentRef())
+                : note.getContentData();
+        if (encoded != null && encoded.length > 0) {
+            note.setContent(inflate(encoded));
+        }
+        note.setContentData(null);
+        note.setContentRef(null);
+    }
+
+    /**
+     * Deletes a blob the note no longer references once the transaction has committed.
+     */
+    public void releaseAfterCommit(String key) {
+        if (StringUtils.hasLength(key)) {
+            afterCompletion(true, key);
+        }
+    }
+
+    private void afterCompletion(boolean onCommit, String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) {
+                blobStore.delete(key);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == onCommit) {
+                    blobStore.delete(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the tagged deflated bytes, or null when compression does not save anything.
+     */
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[raw.length];
+            int length = 1;
+            buffer[0] = FORMAT_DEFLATE;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return deflater.finished() ? Arrays.copyOf(buffer, length) : null;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] encoded) {
+        byte[] raw = switch (encoded[0]) {
+            case FORMAT_RAW -> Arrays.copyOfRange(encoded, 1, encoded.length);
+            case FORMAT_DEFLATE -> {
+                try (InflaterInputStream in = new InflaterInputStream(
+                        new ByteArrayInputStream(encoded, 1, encoded.length - 1))) {
+                    yield in.readAllBytes();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Corrupt note content", e);
+                }
+            }
+            default -> throw new IllegalStateException("Unknown note content format: " + encoded[0]);
+        };
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] tagged(byte format, byte[] data) {
+        byte[] encoded = new byte[data.length + 1];
+        encoded[0] = format;
+        System.arraycopy(data, 0, encoded, 1, data.length);
+        return encoded;
+    }
+}
@@ -3,10 +3,13 @@ package com.coursemanagement.controller;
 import com.coursemanagement.model.entity.Category;
 import com.coursemanagement.security.CustomUserDetails;
 import com.coursemanagement.service.CategoryService;
+import com.coursemanagement.service.CollectionVersionService;
+import com.coursemanagement.util.ConditionalGet;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -17,10 +20,13 @@ import java.util.Map;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CollectionVersionService collectionVersionService;
 
     @GetMapping
-    public ResponseEntity<List<Category>> list(@AuthenticationPrincipal CustomUserDetails userDetails) {
-        return ResponseEntity.ok(categoryService.listByUserId(userDetails.getId()));
+    public ResponseEntity<List<Category>> list(@AuthenticationPrincipal CustomUserDetails userDetails,
+            WebRequest request) {
+        String etag = collectionVersionService.etag(userDetails.getId(), "Category");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> categoryService.listByUserId(userDetails.getId()));
     }
 
     @PostMapping
@@ -1,15 +1,23 @@
 package com.coursemanagement.controller;
 
+import com.coursemanagement.model.dto.BulkCreateRequest;
+import com.coursemanagement.model.dto.BulkIdsRequest;
+import com.coursemanagement.model.dto.BulkResult;
+import com.coursemanagement.model.dto.CourseBulkUpdateRequest;
 import com.coursemanagement.model.dto.CourseRequest;
+import com.coursemanagement.model.dto.CursorPage;
 import com.coursemanagement.model.dto.ProgressRequest;
 import com.coursemanagement.model.entity.Course;
 import com.coursemanagement.security.CustomUserDetails;
+import com.coursemanagement.service.CollectionVersionService;
 import com.coursemanagement.service.CourseService;
+import com.coursemanagement.util.ConditionalGet;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,10 +27,21 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CollectionVersionService collectionVersionService;
 
     @GetMapping
-    public ResponseEntity<List<Course>> list(@AuthenticationPrincipal CustomUserDetails userDetails) {
-        return ResponseEntity.ok(courseService.listByUserId(userDetails.getId()));
+    public ResponseEntity<List<Course>> list(@AuthenticationPrincipal CustomUserDetails userDetails,
+            WebRequest request) {
+        String etag = collectionVersionService.etag(userDetails.getId(), "Course");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> courseService.listByUserId(userDetails.getId()));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Course>> page(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(courseService.pageByUserId(userDetails.getId(), cursor, limit));
     }
 
     @GetMapping("/{id}")
@@ -48,8 +67,7 @@ public class CourseController {
         Course course = mapToCourse(request);
         course.setId(id);
         course.setUserId(userDetails.getId());
-        courseService.updateByIdAndUserId(course, userDetails.getId());
-        return ResponseEntity.ok(course);
+        return ResponseEntity.ok(courseService.updateByIdAndUserId(course, userDetails.getId()));
     }
 
     @DeleteMapping("/{id}")
@@ -67,6 +85,25 @@ public class CourseController {
         return ResponseEntity.ok(course);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult<Course>> createBatch(@Valid @RequestBody BulkCreateRequest<CourseRequest> request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        List<Course> courses = request.getItems().stream().map(this::mapToCourse).toList();
+        return ResponseEntity.ok(courseService.createBatch(courses, userDetails.getId()));
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkResult<Course>> updateBatch(@Valid @RequestBody CourseBulkUpdateRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(courseService.updateBatch(request, userDetails.getId()));
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkResult<Course>> deleteBatch(@Valid @RequestBody BulkIdsRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(courseService.removeBatchByIdsAndUserId(request.getIds(), userDetails.getId()));
+    }
+
     private Course mapToCourse(CourseRequest request) {
         Course course = new Course();
         course.setTitle(request.getTitle());
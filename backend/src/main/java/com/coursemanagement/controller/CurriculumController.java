@@ -1,12 +1,18 @@
 package com.coursemanagement.controller;
 
+import com.coursemanagement.model.dto.CurriculumDetail;
+import com.coursemanagement.model.dto.CursorPage;
+import com.coursemanagement.model.dto.MoveCourseRequest;
 import com.coursemanagement.model.entity.Curriculum;
 import com.coursemanagement.security.CustomUserDetails;
+import com.coursemanagement.service.CollectionVersionService;
 import com.coursemanagement.service.CurriculumService;
+import com.coursemanagement.util.ConditionalGet;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -17,10 +23,26 @@ import java.util.Map;
 public class CurriculumController {
 
     private final CurriculumService curriculumService;
+    private final CollectionVersionService collectionVersionService;
 
     @GetMapping
-    public ResponseEntity<List<Curriculum>> list(@AuthenticationPrincipal CustomUserDetails userDetails) {
-        return ResponseEntity.ok(curriculumService.listByUserId(userDetails.getId()));
+    public ResponseEntity<List<Curriculum>> list(@AuthenticationPrincipal CustomUserDetails userDetails,
+            WebRequest request) {
+        String etag = collectionVersionService.etag(userDetails.getId(), "Curriculum");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> curriculumService.listByUserId(userDetails.getId()));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Curriculum>> page(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(curriculumService.pageByUserId(userDetails.getId(), cursor, limit));
+    }
+
+    @GetMapping("/full")
+    public ResponseEntity<List<CurriculumDetail>> listFull(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(curriculumService.listDetailsByUserId(userDetails.getId()));
     }
 
     @GetMapping("/{id}")
@@ -30,6 +52,12 @@ public class CurriculumController {
         return ResponseEntity.ok(curriculum);
     }
 
+    @GetMapping("/{id}/full")
+    public ResponseEntity<CurriculumDetail> getFull(@PathVariable Long id,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(curriculumService.getDetailByIdAndUserId(id, userDetails.getId()));
+    }
+
     @PostMapping
     public ResponseEntity<Curriculum> create(@RequestBody Curriculum curriculum,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
@@ -43,8 +71,7 @@ public class CurriculumController {
             @RequestBody Curriculum curriculum,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         curriculum.setId(id);
-        curriculumService.updateByIdAndUserId(curriculum, userDetails.getId());
-        return ResponseEntity.ok(curriculum);
+        return ResponseEntity.ok(curriculumService.updateByIdAndUserId(curriculum, userDetails.getId()));
     }
 
     @DeleteMapping("/{id}")
@@ -70,6 +97,15 @@ public class CurriculumController {
         return ResponseEntity.noContent().build();
     }
 
+    @PutMapping("/{id}/courses/{courseId}/move")
+    public ResponseEntity<Void> moveCourse(@PathVariable Long id,
+            @PathVariable Long courseId,
+            @RequestBody MoveCourseRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        curriculumService.moveCourse(id, courseId, request, userDetails.getId());
+        return ResponseEntity.ok().build();
+    }
+
     @PutMapping("/{id}/courses/order")
     public ResponseEntity<Void> reorderCourses(@PathVariable Long id,
             @RequestBody Map<String, List<Long>> body,
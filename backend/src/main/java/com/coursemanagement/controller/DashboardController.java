@@ -0,0 +1,29 @@
+package com.coursemanagement.controller;
+
+import com.coursemanagement.model.dto.DashboardSummary;
+import com.coursemanagement.security.CustomUserDetails;
+import com.coursemanagement.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummary> summary(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(dashboardService.getSummary(userDetails.getId()));
+    }
+
+    @GetMapping("/counters")
+    public ResponseEntity<Map<String, Long>> counters(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(dashboardService.getCounters(userDetails.getId()));
+    }
+}
@@ -79,7 +79,7 @@ public class FileController {
             } catch (IOException e) {
                 // Log error but continue with DB deletion
             }
-            attachmentService.removeById(id);
+            attachmentService.removeAttachment(attachment);
         }
         return ResponseEntity.noContent().build();
     }
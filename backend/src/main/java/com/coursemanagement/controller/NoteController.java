@@ -1,12 +1,21 @@
 package com.coursemanagement.controller;
 
+import com.coursemanagement.model.dto.CursorPage;
+import com.coursemanagement.model.dto.NoteContentPatchRequest;
+import com.coursemanagement.model.dto.NoteContentPatchResult;
+import com.coursemanagement.model.dto.NoteSearchHit;
+import com.coursemanagement.model.dto.NoteSummary;
 import com.coursemanagement.model.entity.Note;
 import com.coursemanagement.security.CustomUserDetails;
+import com.coursemanagement.service.CollectionVersionService;
 import com.coursemanagement.service.NoteService;
+import com.coursemanagement.util.ConditionalGet;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,18 +26,42 @@ import java.util.List;
 public class NoteController {
 
     private final NoteService noteService;
+    private final CollectionVersionService collectionVersionService;
 
     @GetMapping
     public ResponseEntity<List<Note>> list(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) Long courseId,
+            WebRequest request) {
+        String etag = collectionVersionService.etag(userDetails.getId(), "Note");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> courseId != null
+                ? noteService.listByUserIdAndCourseId(userDetails.getId(), courseId)
+                : noteService.listByUserId(userDetails.getId()));
+    }
+
+    @GetMapping("/summaries")
+    public ResponseEntity<List<NoteSummary>> listSummaries(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @RequestParam(required = false) Long courseId) {
-        List<Note> notes;
-        if (courseId != null) {
-            notes = noteService.listByUserIdAndCourseId(userDetails.getId(), courseId);
-        } else {
-            notes = noteService.listByUserId(userDetails.getId());
-        }
-        return ResponseEntity.ok(notes);
+        return ResponseEntity.ok(noteService.listSummariesByUserId(userDetails.getId(), courseId));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<NoteSummary>> page(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(noteService.pageByUserId(userDetails.getId(), courseId, cursor, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<NoteSearchHit>> search(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam String q,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(noteService.search(userDetails.getId(), q, courseId, limit));
     }
 
     @GetMapping("/{id}")
@@ -54,8 +87,14 @@ public class NoteController {
             @RequestBody Note note,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         note.setId(id);
-        noteService.updateByIdAndUserId(note, userDetails.getId());
-        return ResponseEntity.ok(note);
+        return ResponseEntity.ok(noteService.updateByIdAndUserId(note, userDetails.getId()));
+    }
+
+    @PatchMapping("/{id}/content")
+    public ResponseEntity<NoteContentPatchResult> patchContent(@PathVariable Long id,
+            @Valid @RequestBody NoteContentPatchRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(noteService.patchContent(id, request, userDetails.getId()));
     }
 
     @DeleteMapping("/{id}")
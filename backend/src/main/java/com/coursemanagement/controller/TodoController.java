@@ -1,15 +1,23 @@
 package com.coursemanagement.controller;
 
+import com.coursemanagement.model.dto.BulkCreateRequest;
+import com.coursemanagement.model.dto.BulkIdsRequest;
+import com.coursemanagement.model.dto.BulkResult;
+import com.coursemanagement.model.dto.CursorPage;
 import com.coursemanagement.model.dto.StatusRequest;
+import com.coursemanagement.model.dto.TodoBulkUpdateRequest;
 import com.coursemanagement.model.dto.TodoRequest;
 import com.coursemanagement.model.entity.Todo;
 import com.coursemanagement.security.CustomUserDetails;
+import com.coursemanagement.service.CollectionVersionService;
 import com.coursemanagement.service.TodoService;
+import com.coursemanagement.util.ConditionalGet;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,18 +27,26 @@ import java.util.List;
 public class TodoController {
 
     private final TodoService todoService;
+    private final CollectionVersionService collectionVersionService;
 
     @GetMapping
     public ResponseEntity<List<Todo>> list(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @RequestParam(required = false) String status) {
-        List<Todo> todos;
-        if (status != null) {
-            todos = todoService.listByUserIdAndStatus(userDetails.getId(), status);
-        } else {
-            todos = todoService.listByUserId(userDetails.getId());
-        }
-        return ResponseEntity.ok(todos);
+            @RequestParam(required = false) String status,
+            WebRequest request) {
+        String etag = collectionVersionService.etag(userDetails.getId(), "Todo");
+        return ConditionalGet.ifNoneMatch(request, etag, () -> status != null
+                ? todoService.listByUserIdAndStatus(userDetails.getId(), status)
+                : todoService.listByUserId(userDetails.getId()));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Todo>> page(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(todoService.pageByUserId(userDetails.getId(), status, cursor, limit));
     }
 
     @GetMapping("/{id}")
@@ -55,8 +71,7 @@ public class TodoController {
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         Todo todo = mapToTodo(request);
         todo.setId(id);
-        todoService.updateByIdAndUserId(todo, userDetails.getId());
-        return ResponseEntity.ok(todo);
+        return ResponseEntity.ok(todoService.updateByIdAndUserId(todo, userDetails.getId()));
     }
 
     @DeleteMapping("/{id}")
@@ -74,6 +89,25 @@ public class TodoController {
         return ResponseEntity.ok(todo);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult<Todo>> createBatch(@Valid @RequestBody BulkCreateRequest<TodoRequest> request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        List<Todo> todos = request.getItems().stream().map(this::mapToTodo).toList();
+        return ResponseEntity.ok(todoService.createBatch(todos, userDetails.getId()));
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkResult<Todo>> updateBatch(@Valid @RequestBody TodoBulkUpdateRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(todoService.updateBatch(request, userDetails.getId()));
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkResult<Todo>> deleteBatch(@Valid @RequestBody BulkIdsRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(todoService.removeBatchByIdsAndUserId(request.getIds(), userDetails.getId()));
+    }
+
     private Todo mapToTodo(TodoRequest request) {
         Todo todo = new Todo();
         todo.setTitle(request.getTitle());
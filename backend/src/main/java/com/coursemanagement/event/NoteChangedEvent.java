@@ -0,0 +1,30 @@
+package com.coursemanagement.event;
+
+import com.coursemanagement.model.entity.Note;
+
+/**
+ * Published when a note is created, changed or deleted, so derived structures such as the
+ * search index can follow after the transaction commits.
+ *
+ * @param noteId  id of the note
+ * @param deleted whether the note is gone
+ * @param note    the note as written, with its plain content; null when it is deleted or when
+ *                the write did not load it, in which case listeners read it back
+ */
+public record NoteChangedEvent(Long noteId, boolean deleted, Note note) {
+
+    public static NoteChangedEvent written(Note note) {
+        return new NoteChangedEvent(note.getId(), false, note);
+    }
+
+    public static NoteChangedEvent deleted(Long noteId) {
+        return new NoteChangedEvent(noteId, true, null);
+    }
+
+    /**
+     * A change made by the database or in bulk, without the note at hand.
+     */
+    public static NoteChangedEvent changed(Long noteId) {
+        return new NoteChangedEvent(noteId, false, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.coursemanagement.event;
+
+/**
+ * Published whenever a user's rows in one collection are created, changed or deleted.
+ * Listeners that cache per-user data evict on it after the transaction commits.
+ *
+ * @param userId     owner of the changed rows
+ * @param collection resource name of the collection, e.g. "Course"
+ */
+public record UserDataChangedEvent(Long userId, String collection) {
+}
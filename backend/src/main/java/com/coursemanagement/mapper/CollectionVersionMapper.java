@@ -0,0 +1,19 @@
+package com.coursemanagement.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+@Mapper
+public interface CollectionVersionMapper {
+
+    @Select("SELECT version FROM collection_versions WHERE user_id = #{userId} AND collection = #{collection}")
+    Long selectVersion(@Param("userId") Long userId, @Param("collection") String collection);
+
+    @Insert("""
+            INSERT INTO collection_versions (user_id, collection, version) VALUES (#{userId}, #{collection}, 1)
+            ON DUPLICATE KEY UPDATE version = version + 1
+            """)
+    int bump(@Param("userId") Long userId, @Param("collection") String collection);
+}
@@ -3,7 +3,60 @@ package com.coursemanagement.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.coursemanagement.model.entity.CurriculumCourse;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 @Mapper
 public interface CurriculumCourseMapper extends BaseMapper<CurriculumCourse> {
+
+    @Select("SELECT MAX(order_index) FROM curriculum_courses WHERE curriculum_id = #{curriculumId}")
+    Integer selectMaxOrderIndex(@Param("curriculumId") Long curriculumId);
+
+    /**
+     * Sets each course's order_index to its position in {@code courseIds} times {@code gap}
+     * in one statement.
+     * The EXISTS restricts the update to curriculums owned by the user; the return value is the
+     * number of matched rows, so callers can tell whether every id belonged to the curriculum.
+     */
+    @Update("""
+            <script>
+            UPDATE curriculum_courses
+            SET order_index = CASE course_id
+                <foreach collection="courseIds" item="courseId" index="position">
+                    WHEN #{courseId} THEN #{position} * #{gap}
+                </foreach>
+            END
+            WHERE curriculum_id = #{curriculumId}
+              AND course_id IN
+                <foreach collection="courseIds" item="courseId" open="(" separator="," close=")">
+                    #{courseId}
+                </foreach>
+              AND EXISTS (SELECT 1 FROM curriculums c WHERE c.id = #{curriculumId} AND c.user_id = #{userId})
+            </script>
+            """)
+    int reorder(@Param("curriculumId") Long curriculumId, @Param("userId") Long userId,
+            @Param("courseIds") List<Long> courseIds, @Param("gap") int gap);
+
+    /**
+     * Spreads the curriculum's courses evenly {@code gap} apart, keeping their current order.
+     * The ranking is a derived table with a window function, which MySQL always materializes,
+     * so it may read the table being updated.
+     */
+    @Update("""
+            UPDATE curriculum_courses cc
+            SET order_index = (
+                SELECT ranked.position * #{gap}
+                FROM (
+                    SELECT id, ROW_NUMBER() OVER (ORDER BY order_index, id) - 1 AS position
+                    FROM curriculum_courses
+                    WHERE curriculum_id = #{curriculumId}
+                ) ranked
+                WHERE ranked.id = cc.id
+            )
+            WHERE cc.curriculum_id = #{curriculumId}
+            """)
+    int rebalance(@Param("curriculumId") Long curriculumId, @Param("gap") int gap);
 }
@@ -1,9 +1,28 @@
 package com.coursemanagement.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.coursemanagement.model.dto.CurriculumDetail;
 import com.coursemanagement.model.entity.Curriculum;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 @Mapper
 public interface CurriculumMapper extends BaseMapper<Curriculum> {
+
+    /**
+     * Locks the curriculum row so concurrent order changes to its courses are serialized.
+     * Returns null when the curriculum does not exist or belongs to another user.
+     */
+    @Select("SELECT id FROM curriculums WHERE id = #{id} AND user_id = #{userId} FOR UPDATE")
+    Long lockByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Curriculum with its ordered courses; see CurriculumMapper.xml.
+     */
+    CurriculumDetail selectDetail(@Param("id") Long id, @Param("userId") Long userId);
+
+    List<CurriculumDetail> selectDetailsByUserId(@Param("userId") Long userId);
 }
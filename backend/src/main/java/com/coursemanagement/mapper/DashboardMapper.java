@@ -0,0 +1,25 @@
+package com.coursemanagement.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+@Mapper
+public interface DashboardMapper {
+
+    /**
+     * Date progress mirrors the web client's calculateProgress at day granularity. Counts come
+     * from user_counters; this is the one figure that depends on the current date.
+     */
+    @Select("""
+            SELECT COALESCE(ROUND(AVG(CASE
+                       WHEN start_date IS NULL OR end_date IS NULL THEN 0
+                       WHEN CURRENT_DATE <= start_date THEN 0
+                       WHEN CURRENT_DATE >= end_date THEN 100
+                       ELSE DATEDIFF(CURRENT_DATE, start_date) * 100 / DATEDIFF(end_date, start_date)
+                   END)), 0)
+            FROM courses
+            WHERE user_id = #{userId}
+            """)
+    Integer selectAverageProgress(@Param("userId") Long userId);
+}
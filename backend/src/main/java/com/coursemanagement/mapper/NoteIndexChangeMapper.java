@@ -0,0 +1,22 @@
+package com.coursemanagement.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.coursemanagement.model.entity.NoteIndexChange;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+
+@Mapper
+public interface NoteIndexChangeMapper extends BaseMapper<NoteIndexChange> {
+
+    @Select("SELECT MIN(seq) FROM note_index_changes")
+    Long selectMinSeq();
+
+    @Select("SELECT MAX(seq) FROM note_index_changes")
+    Long selectMaxSeq();
+
+    @Select("SELECT MAX(seq) FROM note_index_changes WHERE created_at < #{cutoff}")
+    Long selectMaxSeqBefore(@Param("cutoff") LocalDateTime cutoff);
+}
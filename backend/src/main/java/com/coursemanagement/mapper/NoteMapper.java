@@ -3,7 +3,12 @@ package com.coursemanagement.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.coursemanagement.model.entity.Note;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 
 @Mapper
 public interface NoteMapper extends BaseMapper<Note> {
+
+    @Select("SELECT user_id FROM notes WHERE id = #{id}")
+    Long selectUserIdById(@Param("id") Long id);
 }
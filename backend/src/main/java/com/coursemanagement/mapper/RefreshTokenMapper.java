@@ -2,20 +2,32 @@ package com.coursemanagement.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.coursemanagement.model.entity.RefreshToken;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
-import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.time.LocalDateTime;
+
 @Mapper
 public interface RefreshTokenMapper extends BaseMapper<RefreshToken> {
 
-    @Select("SELECT * FROM refresh_tokens WHERE token = #{token} AND revoked = false AND expires_at > NOW()")
-    RefreshToken findValidToken(@Param("token") String token);
+    /**
+     * Revokes the token only if it is still valid. Returns the affected row count, which is
+     * 1 for exactly one caller even when the same token is presented concurrently.
+     */
+    @Update("UPDATE refresh_tokens SET revoked = true WHERE token_hash = #{tokenHash} AND revoked = false AND expires_at > NOW()")
+    int revokeIfValid(@Param("tokenHash") byte[] tokenHash);
 
-    @Update("UPDATE refresh_tokens SET revoked = true WHERE user_id = #{userId}")
+    @Update("UPDATE refresh_tokens SET revoked = true WHERE user_id = #{userId} AND revoked = false")
     void revokeAllUserTokens(@Param("userId") Long userId);
 
-    @Update("UPDATE refresh_tokens SET revoked = true WHERE token = #{token}")
-    void revokeToken(@Param("token") String token);
+    @Update("UPDATE refresh_tokens SET revoked = true WHERE token_hash = #{tokenHash}")
+    void revokeToken(@Param("tokenHash") byte[] tokenHash);
+
+    @Delete("DELETE FROM refresh_tokens WHERE expires_at < #{cutoff} ORDER BY expires_at LIMIT #{limit}")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Delete("DELETE FROM refresh_tokens WHERE revoked = true AND created_at < #{cutoff} ORDER BY created_at LIMIT #{limit}")
+    int deleteRevokedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
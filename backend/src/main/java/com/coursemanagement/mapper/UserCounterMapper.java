@@ -0,0 +1,128 @@
+package com.coursemanagement.mapper;
+
+import com.coursemanagement.model.entity.UserCounter;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Mapper
+public interface UserCounterMapper {
+
+    @Select("SELECT counter_key, counter_value FROM user_counters WHERE user_id = #{userId}")
+    List<UserCounter> selectByUserId(@Param("userId") Long userId);
+
+    /**
+     * Locks the user's counters, including the gaps between them, so no delta lands while
+     * they are being reconciled.
+     */
+    @Select("SELECT counter_key, counter_value FROM user_counters WHERE user_id = #{userId} FOR UPDATE")
+    List<UserCounter> selectByUserIdForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Adds each delta to its counter, creating missing counters, in one statement.
+     */
+    @Insert("""
+            <script>
+            INSERT INTO user_counters (user_id, counter_key, counter_value) VALUES
+            <foreach collection="deltas" index="key" item="delta" separator=",">
+                (#{userId}, #{key}, #{delta})
+            </foreach>
+            ON DUPLICATE KEY UPDATE counter_value = counter_value + VALUES(counter_value)
+            </script>
+            """)
+    int addDeltas(@Param("userId") Long userId, @Param("deltas") Map<String, Long> deltas);
+
+    @Insert("""
+            <script>
+            INSERT INTO user_counters (user_id, counter_key, counter_value) VALUES
+            <foreach collection="values" index="key" item="value" separator=",">
+                (#{userId}, #{key}, #{value})
+            </foreach>
+            ON DUPLICATE KEY UPDATE counter_value = VALUES(counter_value)
+            </script>
+            """)
+    int setValues(@Param("userId") Long userId, @Param("values") Map<String, Long> values);
+
+    @Delete("""
+            <script>
+            DELETE FROM user_counters WHERE user_id = #{userId} AND counter_key IN
+            <foreach collection="keys" item="key" open="(" separator="," close=")">#{key}</foreach>
+            </script>
+            """)
+    int deleteKeys(@Param("userId") Long userId, @Param("keys") Collection<String> keys);
+
+    /**
+     * Recomputes every counter of the user from the source tables; the same queries
+     * backfill the table in V8__user_counters.sql.
+     */
+    @Select("""
+            SELECT 'courses' AS counter_key, COUNT(*) AS counter_value FROM courses WHERE user_id = #{userId}
+            UNION ALL
+            SELECT CONCAT('courses.status.', status), COUNT(*) FROM courses
+            WHERE user_id = #{userId} AND status IS NOT NULL GROUP BY status
+            UNION ALL
+            SELECT 'todos', COUNT(*) FROM todos WHERE user_id = #{userId}
+            UNION ALL
+            SELECT CONCAT('todos.status.', status), COUNT(*) FROM todos
+            WHERE user_id = #{userId} AND status IS NOT NULL GROUP BY status
+            UNION ALL
+            SELECT 'notes', COUNT(*) FROM notes WHERE user_id = #{userId}
+            UNION ALL
+            SELECT CONCAT('notes.course.', course_id), COUNT(*) FROM notes
+            WHERE user_id = #{userId} AND course_id IS NOT NULL GROUP BY course_id
+            UNION ALL
+            SELECT 'curriculums', COUNT(*) FROM curriculums WHERE user_id = #{userId}
+            UNION ALL
+            SELECT 'attachments', COUNT(*) FROM attachments a
+            JOIN notes n ON n.id = a.note_id WHERE n.user_id = #{userId}
+            UNION ALL
+            SELECT 'storage.bytes', COALESCE(SUM(a.file_size), 0) FROM attachments a
+            JOIN notes n ON n.id = a.note_id WHERE n.user_id = #{userId}
+            UNION ALL
+            SELECT CONCAT('attachments.note.', a.note_id), COUNT(*) FROM attachments a
+            JOIN notes n ON n.id = a.note_id WHERE n.user_id = #{userId} GROUP BY a.note_id
+            """)
+    List<UserCounter> selectActualByUserId(@Param("userId") Long userId);
+
+    @Select("SELECT id FROM users WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<Long> selectUserIdsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * Attachment counters held by the given notes, which their deletion cascades away.
+     */
+    @Select("""
+            <script>
+            SELECT CONCAT('attachments.note.', note_id) AS counter_key, COUNT(*) AS counter_value
+            FROM attachments WHERE note_id IN
+            <foreach collection="noteIds" item="noteId" open="(" separator="," close=")">#{noteId}</foreach>
+            GROUP BY note_id
+            UNION ALL
+            SELECT 'attachments', COUNT(*) FROM attachments WHERE note_id IN
+            <foreach collection="noteIds" item="noteId" open="(" separator="," close=")">#{noteId}</foreach>
+            UNION ALL
+            SELECT 'storage.bytes', COALESCE(SUM(file_size), 0) FROM attachments WHERE note_id IN
+            <foreach collection="noteIds" item="noteId" open="(" separator="," close=")">#{noteId}</foreach>
+            </script>
+            """)
+    List<UserCounter> selectAttachmentCountersByNoteIds(@Param("noteIds") Collection<Long> noteIds);
+
+    /**
+     * Per-course note counters of the given courses, which their deletion detaches.
+     */
+    @Select("""
+            <script>
+            SELECT CONCAT('notes.course.', course_id) AS counter_key, COUNT(*) AS counter_value
+            FROM notes WHERE user_id = #{userId} AND course_id IN
+            <foreach collection="courseIds" item="courseId" open="(" separator="," close=")">#{courseId}</foreach>
+            GROUP BY course_id
+            </script>
+            """)
+    List<UserCounter> selectNoteCountersByCourseIds(@Param("userId") Long userId,
+            @Param("courseIds") Collection<Long> courseIds);
+}
@@ -0,0 +1,16 @@
+package com.coursemanagement.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkCreateRequest<T> {
+
+    @NotEmpty(message = "Items are required")
+    @Size(max = BulkIdsRequest.MAX_ITEMS, message = "At most " + BulkIdsRequest.MAX_ITEMS + " items per request")
+    private List<@Valid T> items;
+}
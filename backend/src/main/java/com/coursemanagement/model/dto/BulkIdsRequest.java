@@ -0,0 +1,18 @@
+package com.coursemanagement.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkIdsRequest {
+
+    public static final int MAX_ITEMS = 500;
+
+    @NotEmpty(message = "Ids are required")
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " items per request")
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,42 @@
+package com.coursemanagement.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk request, one entry per requested item in request order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResult<T> {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String NOT_FOUND = "not_found";
+
+    private List<Item<T>> results;
+    private int succeeded;
+    private int failed;
+
+    public static <T> BulkResult<T> of(List<Item<T>> results) {
+        int failed = (int) results.stream().filter(item -> NOT_FOUND.equals(item.getStatus())).count();
+        return new BulkResult<>(results, results.size() - failed, failed);
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item<T> {
+        private Long id;
+        private String status;
+        private T data;
+    }
+}
@@ -0,0 +1,22 @@
+package com.coursemanagement.model.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Setting progress also derives the status, as the single-course progress endpoint does.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class CourseBulkUpdateRequest extends BulkIdsRequest {
+
+    @Min(value = 0, message = "Progress must be at least 0")
+    @Max(value = 100, message = "Progress must not exceed 100")
+    private Integer progress;
+
+    @Size(max = 50, message = "Status must not exceed 50 characters")
+    private String status;
+}
@@ -0,0 +1,52 @@
+package com.coursemanagement.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurriculumDetail {
+
+    private Long id;
+    private String title;
+    private String description;
+    private String goal;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    private Integer courseCount;
+    private Integer completedCount;
+
+    /**
+     * Average progress of the courses, 0 for an empty curriculum.
+     */
+    private Integer progress;
+
+    @Builder.Default
+    private List<CourseItem> courses = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseItem {
+        private Long id;
+        private String title;
+        private String category;
+        private String status;
+        private Integer progress;
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private String coverUrl;
+        private Integer orderIndex;
+    }
+}
@@ -0,0 +1,31 @@
+package com.coursemanagement.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSummary {
+
+    private Long totalCourses;
+    private Long completedCourses;
+
+    /**
+     * Average share of each course's start-to-end date range that has elapsed, 0-100.
+     * Courses without both dates count as 0.
+     */
+    private Integer averageProgress;
+
+    private Long totalNotes;
+    private Long totalCurriculums;
+
+    private Long totalTodos;
+    private Long pendingTodos;
+    private Map<String, Long> todosByStatus;
+}
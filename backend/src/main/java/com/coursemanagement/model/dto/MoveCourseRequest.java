@@ -0,0 +1,15 @@
+package com.coursemanagement.model.dto;
+
+import lombok.Data;
+
+/**
+ * Target position of a course within its curriculum: directly after {@code afterCourseId}
+ * or directly before {@code beforeCourseId}. Exactly one must be set.
+ */
+@Data
+public class MoveCourseRequest {
+
+    private Long afterCourseId;
+
+    private Long beforeCourseId;
+}
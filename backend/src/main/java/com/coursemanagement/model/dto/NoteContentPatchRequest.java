@@ -0,0 +1,45 @@
+package com.coursemanagement.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Edits to a note's content, relative to the version whose hash is {@code baseHash}.
+ * Operations address the base content and must be ordered by position without overlapping.
+ */
+@Data
+public class NoteContentPatchRequest {
+
+    public static final int MAX_OPERATIONS = 1000;
+
+    @NotBlank(message = "Base hash is required")
+    private String baseHash;
+
+    @NotEmpty(message = "Operations are required")
+    @Size(max = MAX_OPERATIONS, message = "At most " + MAX_OPERATIONS + " operations per request")
+    private List<@Valid @NotNull Operation> operations;
+
+    /**
+     * Replaces {@code deleteCount} characters at {@code position} with {@code insert}.
+     * Positions and counts are UTF-16 code units, like JavaScript string indices.
+     */
+    @Data
+    public static class Operation {
+
+        @NotNull(message = "Position is required")
+        @PositiveOrZero(message = "Position must not be negative")
+        private Integer position;
+
+        @PositiveOrZero(message = "Delete count must not be negative")
+        private Integer deleteCount;
+
+        private String insert;
+    }
+}
@@ -0,0 +1,25 @@
+package com.coursemanagement.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteContentPatchResult {
+
+    private Long id;
+
+    /**
+     * Base hash for the next patch.
+     */
+    private String contentHash;
+
+    private Integer contentLength;
+    private LocalDateTime updatedAt;
+}
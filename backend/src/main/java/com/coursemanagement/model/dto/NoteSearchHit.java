@@ -0,0 +1,26 @@
+package com.coursemanagement.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSearchHit {
+
+    private Long id;
+    private Long courseId;
+    private String title;
+    private String excerpt;
+    private LocalDateTime updatedAt;
+
+    /**
+     * BM25 relevance; only comparable between hits of the same search.
+     */
+    private float score;
+}
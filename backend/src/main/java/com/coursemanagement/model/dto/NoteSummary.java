@@ -0,0 +1,36 @@
+package com.coursemanagement.model.dto;
+
+import com.coursemanagement.model.entity.Note;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSummary {
+
+    private Long id;
+    private Long courseId;
+    private String title;
+    private String excerpt;
+    private Integer contentLength;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static NoteSummary from(Note note) {
+        return NoteSummary.builder()
+                .id(note.getId())
+                .courseId(note.getCourseId())
+                .title(note.getTitle())
+                .excerpt(note.getExcerpt())
+                .contentLength(note.getContentLength())
+                .createdAt(note.getCreatedAt())
+                .updatedAt(note.getUpdatedAt())
+                .build();
+    }
+}
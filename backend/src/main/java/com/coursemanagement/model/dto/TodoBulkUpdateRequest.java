@@ -0,0 +1,15 @@
+package com.coursemanagement.model.dto;
+
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class TodoBulkUpdateRequest extends BulkIdsRequest {
+
+    @Pattern(regexp = "^(pending|in_progress|completed)$", message = "Status must be pending, in_progress, or completed")
+    private String status;
+
+    private Long courseId;
+}
@@ -3,6 +3,7 @@ package com.coursemanagement.model.entity;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -22,6 +23,33 @@ public class Note {
 
     private String content;
 
+    /**
+     * Encoded content when it is not stored plain; see NoteContentStore.
+     */
+    @JsonIgnore
+    private byte[] contentData;
+
+    /**
+     * Blob store key of content too large for the row.
+     */
+    @JsonIgnore
+    private String contentRef;
+
+    /**
+     * SHA-256 hex of the content, the base version for content patches.
+     */
+    private String contentHash;
+
+    /**
+     * Whitespace-collapsed start of the content, maintained on write for list views.
+     */
+    private String excerpt;
+
+    /**
+     * Length of the content in UTF-16 code units, the unit of content patch positions.
+     */
+    private Integer contentLength;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -0,0 +1,23 @@
+package com.coursemanagement.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed note write, replayed by the search index of every node in {@code seq} order.
+ */
+@Data
+@TableName("note_index_changes")
+public class NoteIndexChange {
+
+    @TableId(type = IdType.AUTO)
+    private Long seq;
+
+    private Long noteId;
+
+    private LocalDateTime createdAt;
+}
@@ -16,7 +16,10 @@ public class RefreshToken {
 
     private Long userId;
 
-    private String token;
+    /**
+     * SHA-256 digest of the refresh token; the token itself is never stored.
+     */
+    private byte[] tokenHash;
 
     private LocalDateTime expiresAt;
 
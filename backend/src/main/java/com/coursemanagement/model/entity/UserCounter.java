@@ -0,0 +1,14 @@
+package com.coursemanagement.model.entity;
+
+import lombok.Data;
+
+/**
+ * One pre-aggregated count of a user's data; see {@link com.coursemanagement.util.CounterKeys}.
+ */
+@Data
+public class UserCounter {
+
+    private String counterKey;
+
+    private Long counterValue;
+}
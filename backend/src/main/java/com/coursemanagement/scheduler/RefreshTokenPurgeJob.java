@@ -0,0 +1,99 @@
+package com.coursemanagement.scheduler;
+
+import com.coursemanagement.mapper.RefreshTokenMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Deletes expired and revoked refresh tokens in small batches.
+ *
+ * Each batch is its own auto-committed DELETE ... LIMIT, so row locks are held for one
+ * batch at a time and concurrent logins and refreshes are never blocked for long.
+ */
+@Component
+@Slf4j
+public class RefreshTokenPurgeJob {
+
+    private final RefreshTokenMapper refreshTokenMapper;
+    private final Counter purgedCounter;
+    private final Timer batchTimer;
+
+    @Value("${app.token-purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.token-purge.retention:P1D}")
+    private Duration retention;
+
+    @Value("${app.token-purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.token-purge.batch-pause:50ms}")
+    private Duration batchPause;
+
+    @Value("${app.token-purge.max-batches:200}")
+    private int maxBatches;
+
+    public RefreshTokenPurgeJob(RefreshTokenMapper refreshTokenMapper, MeterRegistry meterRegistry) {
+        this.refreshTokenMapper = refreshTokenMapper;
+        this.purgedCounter = Counter.builder("refresh_tokens.purged")
+                .description("Expired or revoked refresh tokens deleted")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("refresh_tokens.purge.batch")
+                .description("Time spent per refresh token purge batch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.token-purge.interval:PT1H}", initialDelayString = "PT1M")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long started = System.nanoTime();
+
+        int expired = purgeInBatches(limit -> refreshTokenMapper.deleteExpiredBefore(cutoff, limit));
+        int revoked = purgeInBatches(limit -> refreshTokenMapper.deleteRevokedBefore(cutoff, limit));
+
+        if (expired + revoked > 0) {
+            log.info("Purged {} expired and {} revoked refresh tokens older than {} in {} ms",
+                    expired, revoked, cutoff, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        }
+    }
+
+    private int purgeInBatches(IntUnaryOperator deleteBatch) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            long batchStart = System.nanoTime();
+            int deleted = deleteBatch.applyAsInt(batchSize);
+            batchTimer.record(Duration.ofNanos(System.nanoTime() - batchStart));
+
+            purgedCounter.increment(deleted);
+            total += deleted;
+
+            if (deleted < batchSize || !pauseBetweenBatches()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private boolean pauseBetweenBatches() {
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
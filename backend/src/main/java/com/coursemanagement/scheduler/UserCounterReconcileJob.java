@@ -0,0 +1,70 @@
+package com.coursemanagement.scheduler;
+
+import com.coursemanagement.mapper.UserCounterMapper;
+import com.coursemanagement.service.UserCounterService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Recomputes every user's counters from the source tables and repairs drift, e.g. from
+ * rows changed outside the services or cascades the services do not track.
+ *
+ * Users are walked in id order, one short transaction each, so a run never holds more
+ * than one user's counter locks.
+ */
+@Component
+@Slf4j
+public class UserCounterReconcileJob {
+
+    private final UserCounterMapper userCounterMapper;
+    private final UserCounterService userCounterService;
+    private final Counter correctionsCounter;
+
+    @Value("${app.counters.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.counters.reconcile.batch-size:200}")
+    private int batchSize;
+
+    public UserCounterReconcileJob(UserCounterMapper userCounterMapper, UserCounterService userCounterService,
+            MeterRegistry meterRegistry) {
+        this.userCounterMapper = userCounterMapper;
+        this.userCounterService = userCounterService;
+        this.correctionsCounter = Counter.builder("user_counters.corrections")
+                .description("Per-user counters found out of step with the source tables")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.reconcile.interval:PT6H}", initialDelayString = "PT5M")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+
+        long lastUserId = 0;
+        int users = 0;
+        int corrections = 0;
+        List<Long> userIds;
+        do {
+            userIds = userCounterMapper.selectUserIdsAfter(lastUserId, batchSize);
+            for (Long userId : userIds) {
+                try {
+                    corrections += userCounterService.reconcile(userId);
+                } catch (RuntimeException e) {
+                    log.warn("Could not reconcile counters for user {}", userId, e);
+                }
+                lastUserId = userId;
+            }
+            users += userIds.size();
+        } while (userIds.size() == batchSize);
+
+        correctionsCounter.increment(corrections);
+        log.info("Reconciled counters of {} users, {} corrected", users, corrections);
+    }
+}
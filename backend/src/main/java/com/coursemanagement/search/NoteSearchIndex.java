@@ -0,0 +1,466 @@
+package com.coursemanagement.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.coursemanagement.content.NoteContentStore;
+import com.coursemanagement.event.NoteChangedEvent;
+import com.coursemanagement.mapper.NoteIndexChangeMapper;
+import com.coursemanagement.mapper.NoteMapper;
+import com.coursemanagement.model.dto.NoteSearchHit;
+import com.coursemanagement.model.entity.Note;
+import com.coursemanagement.model.entity.NoteIndexChange;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.ConcurrentMergeScheduler;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TieredMergePolicy;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text index over note titles and content, kept in memory-mapped Lucene segments under
+ * {@code app.note-search.index-dir} and ranked with BM25.
+ *
+ * Every node keeps its own index. Each note write appends its note id to
+ * {@code note_index_changes} in the writing transaction ({@link NoteChangedEvent}), and every
+ * node replays that log in {@code seq} order on each refresh, re-reading the notes it names,
+ * so writes through any node become searchable on all of them. The node that made the write
+ * also indexes the note from the event as soon as it commits.
+ *
+ * Sequence numbers are taken just before commit, so a transaction can commit after a higher
+ * one has already been replayed. Skipped numbers are retried until {@code gap-timeout}, after
+ * which they are taken to belong to rolled back transactions.
+ *
+ * Updates are buffered by the IndexWriter, become searchable on the next refresh and durable
+ * on the next commit, together with the last replayed {@code seq}; segments are merged by
+ * background threads. After a crash the log is replayed from that point. An index that is
+ * missing, from an older schema or older than the retained log is rebuilt from the notes table
+ * on startup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NoteSearchIndex {
+
+    /**
+     * Bump when the document layout changes; older indexes are then rebuilt.
+     */
+    private static final String SCHEMA_VERSION = "2";
+    private static final String SCHEMA_KEY = "schema";
+    private static final String REPLAYED_KEY = "replayed_seq";
+
+    private static final String ID = "id";
+    private static final String USER_ID = "user_id";
+    private static final String COURSE_ID = "course_id";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+    private static final String EXCERPT = "excerpt";
+    private static final String UPDATED_AT = "updated_at";
+
+    private static final float TITLE_BOOST = 2.0f;
+    private static final int MAX_QUERY_LENGTH = 256;
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int REPLAY_BATCH_SIZE = 500;
+    private static final int MAX_TRACKED_GAPS = 1_000;
+
+    private final NoteMapper noteMapper;
+    private final NoteIndexChangeMapper noteIndexChangeMapper;
+    private final NoteContentStore noteContentStore;
+
+    @Value("${app.note-search.index-dir:storage/note-index}")
+    private Path indexDir;
+
+    @Value("${app.note-search.gap-timeout:PT1M}")
+    private Duration gapTimeout;
+
+    @Value("${app.note-search.change-retention:P7D}")
+    private Duration changeRetention;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private boolean rebuildOnStart;
+    private Long committedSeq;
+
+    /**
+     * Last replayed {@code seq}, or null until the index is known to be complete up to a point.
+     */
+    private volatile Long replayedSeq;
+
+    /**
+     * Set when a rebuild failed; the replayed seq is then never committed.
+     */
+    private volatile boolean incomplete;
+
+    /**
+     * Skipped sequence numbers, each with the nano time it was first missed. Only touched by
+     * the refresh, which never runs concurrently with itself.
+     */
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(indexDir);
+        directory = new MMapDirectory(indexDir);
+
+        Map<String, String> lastCommit = DirectoryReader.indexExists(directory)
+                ? SegmentInfos.readLatestCommit(directory).getUserData()
+                : Map.of();
+        String lastReplayed = lastCommit.get(REPLAYED_KEY);
+        rebuildOnStart = !SCHEMA_VERSION.equals(lastCommit.get(SCHEMA_KEY)) || lastReplayed == null;
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(rebuildOnStart ? IndexWriterConfig.OpenMode.CREATE : IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setSimilarity(new BM25Similarity())
+                .setMergePolicy(new TieredMergePolicy())
+                .setMergeScheduler(new ConcurrentMergeScheduler());
+        writer = new IndexWriter(directory, config);
+        if (rebuildOnStart) {
+            // Without a replayed seq a crash during the rebuild leads to another rebuild
+            writer.setLiveCommitData(Map.of(SCHEMA_KEY, SCHEMA_VERSION).entrySet());
+            writer.commit();
+        }
+
+        searcherManager = new SearcherManager(writer, null);
+        committedSeq = rebuildOnStart ? null : Long.valueOf(lastReplayed);
+    }
+
+    /**
+     * Starts replaying the change log, or rebuilds first if changes the index has not seen
+     * were purged from the log. Runs once the schema is migrated.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfNeeded() {
+        if (!rebuildOnStart) {
+            Long oldestSeq = noteIndexChangeMapper.selectMinSeq();
+            if (oldestSeq == null || committedSeq >= oldestSeq - 1) {
+                replayedSeq = committedSeq;
+                return;
+            }
+            log.info("Changes after seq {} were purged from the log; rebuilding the note search index", committedSeq);
+        }
+        Thread.ofPlatform().name("note-index-rebuild").daemon().start(this::rebuild);
+    }
+
+    /**
+     * Returns the user's notes matching any term of the text, best first.
+     */
+    public List<NoteSearchHit> search(Long userId, String text, Long courseId, int limit) {
+        String queryText = text.length() > MAX_QUERY_LENGTH ? text.substring(0, MAX_QUERY_LENGTH) : text;
+        QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+        Query titleQuery = queryBuilder.createBooleanQuery(TITLE, queryText);
+        Query contentQuery = queryBuilder.createBooleanQuery(CONTENT, queryText);
+        if (titleQuery == null && contentQuery == null) {
+            return List.of(); // nothing left after analysis, e.g. only punctuation
+        }
+
+        BooleanQuery.Builder match = new BooleanQuery.Builder();
+        if (titleQuery != null) {
+            match.add(new BoostQuery(titleQuery, TITLE_BOOST), BooleanClause.Occur.SHOULD);
+        }
+        if (contentQuery != null) {
+            match.add(contentQuery, BooleanClause.Occur.SHOULD);
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(match.build(), BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(USER_ID, userId.toString())), BooleanClause.Occur.FILTER);
+        if (courseId != null) {
+            query.add(new TermQuery(new Term(COURSE_ID, courseId.toString())), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                List<NoteSearchHit> hits = new ArrayList<>();
+                for (ScoreDoc scoreDoc : searcher.search(query.build(), limit).scoreDocs) {
+                    hits.add(toHit(storedFields.document(scoreDoc.doc), scoreDoc.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Note search failed", e);
+        }
+    }
+
+    /**
+     * Appends the change to the log inside the writing transaction, so it commits with the write.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void logChange(NoteChangedEvent event) {
+        NoteIndexChange change = new NoteIndexChange();
+        change.setNoteId(event.noteId());
+        noteIndexChangeMapper.insert(change);
+    }
+
+    /**
+     * Indexes the note on the node that wrote it without waiting for the replay, which still
+     * re-reads it later.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        Long noteId = event.noteId();
+        try {
+            Note note = event.deleted() ? null
+                    : event.note() != null ? event.note() : decoded(noteMapper.selectById(noteId));
+            if (note == null) {
+                writer.deleteDocuments(idTerm(noteId));
+            } else {
+                writer.updateDocument(idTerm(noteId), toDocument(note));
+            }
+        } catch (IOException | UncheckedIOException | AlreadyClosedException e) {
+            // The replay of the log repairs it; the write itself has committed already
+            log.warn("Could not update note {} in the search index", noteId, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.note-search.refresh-interval:PT1S}")
+    public void refresh() {
+        try {
+            if (replayedSeq != null) {
+                replayChanges();
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not refresh the note search index", e);
+        }
+    }
+
+    /**
+     * Re-indexes the notes named by log entries after the replayed seq and by skipped entries
+     * that have committed since.
+     */
+    private void replayChanges() throws IOException {
+        List<NoteIndexChange> changes = new ArrayList<>();
+        if (!gaps.isEmpty()) {
+            List<NoteIndexChange> filled = noteIndexChangeMapper.selectList(new LambdaQueryWrapper<NoteIndexChange>()
+                    .select(NoteIndexChange::getSeq, NoteIndexChange::getNoteId)
+                    .in(NoteIndexChange::getSeq, gaps.keySet()));
+            filled.forEach(change -> gaps.remove(change.getSeq()));
+            changes.addAll(filled);
+            long expired = System.nanoTime() - gapTimeout.toNanos();
+            gaps.values().removeIf(firstMissed -> firstMissed - expired < 0);
+        }
+
+        long replayed = replayedSeq;
+        List<NoteIndexChange> newer = noteIndexChangeMapper.selectList(new LambdaQueryWrapper<NoteIndexChange>()
+                .select(NoteIndexChange::getSeq, NoteIndexChange::getNoteId)
+                .gt(NoteIndexChange::getSeq, replayed)
+                .orderByAsc(NoteIndexChange::getSeq)
+                .last("LIMIT " + REPLAY_BATCH_SIZE));
+        long now = System.nanoTime();
+        for (NoteIndexChange change : newer) {
+            for (long missing = replayed + 1; missing < change.getSeq() && gaps.size() < MAX_TRACKED_GAPS; missing++) {
+                gaps.putIfAbsent(missing, now);
+            }
+            replayed = change.getSeq();
+        }
+        changes.addAll(newer);
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Set<Long> noteIds = changes.stream()
+                .map(NoteIndexChange::getNoteId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Note> notes = noteMapper.selectBatchIds(noteIds).stream()
+                .collect(Collectors.toMap(Note::getId, Function.identity()));
+        for (Long noteId : noteIds) {
+            Note note = notes.get(noteId);
+            if (note == null) {
+                writer.deleteDocuments(idTerm(noteId));
+            } else {
+                try {
+                    writer.updateDocument(idTerm(noteId), toDocument(decoded(note)));
+                } catch (UncheckedIOException e) {
+                    log.warn("Skipping note {} whose content cannot be read", noteId, e);
+                }
+            }
+        }
+        replayedSeq = replayed;
+        if (!incomplete) {
+            writer.setLiveCommitData(commitData(replayed).entrySet());
+        }
+    }
+
+    /**
+     * Deletes log entries older than the retention, keeping the newest so a node that has seen
+     * everything can still tell so after a restart.
+     */
+    @Scheduled(fixedDelayString = "${app.note-search.purge-interval:PT1H}", initialDelayString = "PT5M")
+    public void purgeChanges() {
+        Long newestSeq = noteIndexChangeMapper.selectMaxSeq();
+        if (newestSeq == null) {
+            return;
+        }
+        int purged = noteIndexChangeMapper.delete(new LambdaQueryWrapper<NoteIndexChange>()
+                .lt(NoteIndexChange::getCreatedAt, LocalDateTime.now().minus(changeRetention))
+                .lt(NoteIndexChange::getSeq, newestSeq));
+        if (purged > 0) {
+            log.info("Purged {} note index changes older than {}", purged, changeRetention);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.note-search.commit-interval:PT1M}")
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.warn("Could not commit the note search index", e);
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        writer.close(); // commits
+        directory.close();
+    }
+
+    /**
+     * Indexes every note, then replays the log from before the scan started, which corrects
+     * notes changed or deleted while their batch was being indexed.
+     */
+    private void rebuild() {
+        long started = System.nanoTime();
+        long lastId = 0;
+        int indexed = 0;
+        // Entries younger than the gap timeout may still have uncommitted predecessors
+        Long replayFrom = noteIndexChangeMapper.selectMaxSeqBefore(LocalDateTime.now().minus(gapTimeout));
+        long startSeq = replayFrom != null ? replayFrom : 0L;
+        try {
+            List<Note> batch;
+            do {
+                batch = noteMapper.selectList(new LambdaQueryWrapper<Note>()
+                        .gt(Note::getId, lastId)
+                        .orderByAsc(Note::getId)
+                        .last("LIMIT " + REBUILD_BATCH_SIZE));
+                for (Note note : batch) {
+                    try {
+                        writer.updateDocument(idTerm(note.getId()), toDocument(decoded(note)));
+                    } catch (UncheckedIOException e) {
+                        log.warn("Skipping note {} whose content cannot be read", note.getId(), e);
+                    }
+                    lastId = note.getId();
+                }
+                indexed += batch.size();
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            writer.setLiveCommitData(commitData(startSeq).entrySet());
+            writer.commit();
+            searcherManager.maybeRefresh();
+            log.info("Rebuilt the note search index with {} notes in {} ms",
+                    indexed, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (IOException | RuntimeException e) {
+            // Replay anyway so the index keeps up; the missing replayed seq forces a rebuild on restart
+            incomplete = true;
+            log.error("Rebuilding the note search index failed after {} notes", indexed, e);
+        } finally {
+            replayedSeq = startSeq;
+        }
+    }
+
+    private Note decoded(Note note) {
+        if (note != null) {
+            noteContentStore.decode(note);
+        }
+        return note;
+    }
+
+    private static Map<String, String> commitData(long replayedSeq) {
+        return Map.of(SCHEMA_KEY, SCHEMA_VERSION, REPLAYED_KEY, Long.toString(replayedSeq));
+    }
+
+    private static Term idTerm(Long noteId) {
+        return new Term(ID, noteId.toString());
+    }
+
+    private static Document toDocument(Note note) {
+        Document document = new Document();
+        document.add(new StringField(ID, note.getId().toString(), Field.Store.YES));
+        document.add(new StringField(USER_ID, note.getUserId().toString(), Field.Store.NO));
+        if (note.getCourseId() != null) {
+            document.add(new StringField(COURSE_ID, note.getCourseId().toString(), Field.Store.YES));
+        }
+        document.add(new TextField(TITLE, note.getTitle() != null ? note.getTitle() : "", Field.Store.YES));
+        if (note.getContent() != null) {
+            document.add(new TextField(CONTENT, note.getContent(), Field.Store.NO));
+        }
+        if (note.getExcerpt() != null) {
+            document.add(new StoredField(EXCERPT, note.getExcerpt()));
+        }
+        if (note.getUpdatedAt() != null) {
+            document.add(new StoredField(UPDATED_AT, note.getUpdatedAt().toEpochSecond(ZoneOffset.UTC)));
+        }
+        return document;
+    }
+
+    private static NoteSearchHit toHit(Document document, float score) {
+        IndexableField updatedAt = document.getField(UPDATED_AT);
+        String courseId = document.get(COURSE_ID);
+        return NoteSearchHit.builder()
+                .id(Long.valueOf(document.get(ID)))
+                .courseId(courseId != null ? Long.valueOf(courseId) : null)
+                .title(document.get(TITLE))
+                .excerpt(document.get(EXCERPT))
+                .updatedAt(updatedAt != null
+                        ? LocalDateTime.ofEpochSecond(updatedAt.numericValue().longValue(), 0, ZoneOffset.UTC)
+                        : null)
+                .score(score)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.coursemanagement.security;
+
+import com.coursemanagement.config.ApiQuotaProperties;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weighted per-user quota for every authenticated endpoint.
+ *
+ * Runs after {@link JwtAuthenticationFilter}; anonymous requests are left to
+ * {@link RateLimitingFilter}. Limits and remaining budget are reported in the
+ * {@code X-RateLimit-*} headers on every response.
+ *
+ * Quota buckets always live on the node, even with the jdbc rate limit backend: they are
+ * consumed on every authenticated request, and a database round trip for each would add the
+ * load the quota exists to shed. Each node therefore grants the full capacity.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApiQuotaFilter extends OncePerRequestFilter {
+
+    private final ApiQuotaProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private RateLimitBucketStore bucketStore;
+    private BucketConfiguration quota;
+    private List<CostRule> costRules;
+
+    @PostConstruct
+    void init() {
+        // An idle bucket is full again after one refill period, so it can be dropped then
+        bucketStore = new LocalRateLimitBucketStore(meterRegistry, "api-quota.buckets",
+                properties.getMaxBuckets(), properties.getRefillPeriod());
+        quota = BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(properties.getCapacity())
+                        .refillGreedy(properties.getCapacity(), properties.getRefillPeriod())
+                        .build())
+                .build();
+        costRules = properties.getCosts().stream()
+                .map(cost -> new CostRule(
+                        StringUtils.hasText(cost.getMethod()) ? cost.getMethod().toUpperCase() : null,
+                        PathPatternParser.defaultInstance.parse(cost.getPath()),
+                        cost.getCost()))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof CustomUserDetails userDetails)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long cost = resolveCost(request);
+        ConsumptionProbe probe = bucketStore
+                .resolve("quota:user:" + userDetails.getId(), () -> quota)
+                .tryConsumeAndReturnRemaining(cost);
+
+        response.setHeader("X-RateLimit-Limit", String.valueOf(properties.getCapacity()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(toSeconds(probe.getNanosToWaitForReset())));
+
+        if (!probe.isConsumed()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(toSeconds(probe.getNanosToWaitForRefill())));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"message\":\"API quota exceeded. Please try again later.\",\"status\":429}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private long resolveCost(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (CostRule rule : costRules) {
+            if ((rule.method() == null || rule.method().equals(request.getMethod()))
+                    && rule.pattern().matches(pathContainer)) {
+                return rule.cost();
+            }
+        }
+        return properties.getDefaultCost();
+    }
+
+    private static long toSeconds(long nanos) {
+        // Round up so clients never retry before the budget is actually available
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    private record CostRule(String method, PathPattern pattern, long cost) {
+    }
+}
@@ -1,7 +1,6 @@
 package com.coursemanagement.security;
 
 import com.coursemanagement.model.entity.User;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -9,16 +8,29 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 @Getter
-@AllArgsConstructor
 public class CustomUserDetails implements UserDetails {
 
+    public static final String DEFAULT_ROLE = "ROLE_USER";
+
     private final User user;
 
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public CustomUserDetails(User user) {
+        this(user, Collections.singletonList(new SimpleGrantedAuthority(DEFAULT_ROLE)));
+    }
+
+    public CustomUserDetails(User user, Collection<? extends GrantedAuthority> authorities) {
+        this.user = user;
+        this.authorities = List.copyOf(authorities);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+        return authorities;
     }
 
     @Override
@@ -2,17 +2,50 @@ package com.coursemanagement.security;
 
 import com.coursemanagement.mapper.UserMapper;
 import com.coursemanagement.model.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserMapper userMapper;
+    private final UserVersionRegistry userVersionRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.principal-cache.max-size:10000}")
+    private long principalCacheSize;
+
+    @Value("${app.principal-cache.ttl:5m}")
+    private Duration principalCacheTtl;
+
+    /**
+     * Principals resolved by the JWT filter, keyed by user id. Entries are evicted through
+     * {@link #invalidateUser(Long)} whenever a user row changes; the TTL bounds staleness for
+     * changes made outside this node.
+     */
+    private Cache<Long, CustomUserDetails> principals;
+
+    @PostConstruct
+    void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(principalCacheSize)
+                .expireAfterWrite(principalCacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "security.principals");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -24,10 +57,38 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     public UserDetails loadUserById(Long id) {
+        CustomUserDetails cached = principals.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
         User user = userMapper.selectById(id);
         if (user == null) {
             throw new UsernameNotFoundException("User not found with id: " + id);
         }
-        return new CustomUserDetails(user);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        principals.put(id, userDetails);
+        return userDetails;
+    }
+
+    /**
+     * Drops the cached principal so the next request reloads the user row. Access tokens
+     * already issued stay valid.
+     */
+    public void invalidateUser(Long id) {
+        if (id != null) {
+            principals.invalidate(id);
+        }
+    }
+
+    /**
+     * Drops the cached principal and rejects access tokens issued before this call. For
+     * logout and credential changes only; profile edits use {@link #invalidateUser(Long)}.
+     */
+    public void revokeAccessTokens(Long id) {
+        if (id != null) {
+            principals.invalidate(id);
+            userVersionRegistry.bump(id);
+        }
     }
 }
@@ -0,0 +1,146 @@
+package com.coursemanagement.security;
+
+import com.coursemanagement.util.CookieUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Keeps the pending OAuth2 authorization request in a signed cookie instead of the HTTP session.
+ *
+ * The cookie holds {@code payload.signature}, where the payload is the expiry time followed by
+ * the serialized request and the signature is an HMAC-SHA256 over the payload. Any node sharing
+ * the JWT secret can therefore finish the callback, and abandoned logins leave nothing behind.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HttpCookieOAuth2AuthorizationRequestRepository
+        implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final CookieUtil cookieUtil;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${app.oauth2.authorization-request-ttl:3m}")
+    private Duration ttl;
+
+    private SecretKeySpec signingKey;
+
+    @PostConstruct
+    void init() throws GeneralSecurityException {
+        // Derive a dedicated key so cookie signatures can never be replayed as JWT signatures
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+        byte[] derived = mac.doFinal("oauth2-authorization-request".getBytes(StandardCharsets.UTF_8));
+        signingKey = new SecretKeySpec(derived, HMAC_ALGORITHM);
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        String value = cookieUtil.getOAuth2AuthorizationRequestFromCookie(request);
+        return value != null ? decode(value) : null;
+    }
+
+    @Override
+    public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest,
+            HttpServletRequest request, HttpServletResponse response) {
+        if (authorizationRequest == null) {
+            cookieUtil.clearOAuth2AuthorizationRequestCookie(response);
+            return;
+        }
+        cookieUtil.addOAuth2AuthorizationRequestCookie(response, encode(authorizationRequest),
+                (int) ttl.toSeconds());
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request,
+            HttpServletResponse response) {
+        OAuth2AuthorizationRequest authorizationRequest = loadAuthorizationRequest(request);
+        cookieUtil.clearOAuth2AuthorizationRequestCookie(response);
+        return authorizationRequest;
+    }
+
+    private String encode(OAuth2AuthorizationRequest authorizationRequest) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(bytes)) {
+            data.writeLong(System.currentTimeMillis() + ttl.toMillis());
+            ObjectOutputStream object = new ObjectOutputStream(data);
+            object.writeObject(authorizationRequest);
+            object.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize OAuth2 authorization request", e);
+        }
+        byte[] payload = bytes.toByteArray();
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    private OAuth2AuthorizationRequest decode(String value) {
+        int separator = value.indexOf('.');
+        if (separator < 0) {
+            return null;
+        }
+
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(value.substring(0, separator));
+            signature = DECODER.decode(value.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        // Only ever deserialize bytes this application signed
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            log.warn("Rejected OAuth2 authorization request cookie with an invalid signature");
+            return null;
+        }
+
+        try (DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload))) {
+            if (data.readLong() < System.currentTimeMillis()) {
+                return null;
+            }
+            return (OAuth2AuthorizationRequest) new ObjectInputStream(data).readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.warn("Failed to read OAuth2 authorization request cookie: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            // Every JRE is required to ship HmacSHA256
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.coursemanagement.security;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.AbstractSelectForUpdateBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.LockAndGetResult;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.SelectForUpdateBasedTransaction;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Rate limit buckets shared by every node through the {@code rate_limit_buckets} table.
+ *
+ * Built on bucket4j's select-for-update proxy manager, the synchronous-only base its own JDBC
+ * integrations use: each consume locks the bucket row with {@code SELECT ... FOR UPDATE},
+ * applies the command locally and writes the new state back before committing, so the row
+ * lock is held for two statements. A missing bucket is first created as an empty placeholder
+ * row in its own short transaction, which concurrent nodes then queue on.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "jdbc")
+@Slf4j
+public class JdbcRateLimitBucketStore implements RateLimitBucketStore {
+
+    private static final String SELECT_STATE_FOR_UPDATE =
+            "SELECT state FROM rate_limit_buckets WHERE id = ? FOR UPDATE";
+    // Expired at once, so a placeholder left behind by a crashed node is cleaned up
+    private static final String INSERT_PLACEHOLDER =
+            "INSERT INTO rate_limit_buckets (id, state, version, expires_at) VALUES (?, X'', 0, 0)";
+    private static final String UPDATE_STATE =
+            "UPDATE rate_limit_buckets SET state = ?, version = version + 1, expires_at = ? WHERE id = ?";
+    private static final String DELETE_STATE =
+            "DELETE FROM rate_limit_buckets WHERE id = ?";
+    private static final String DELETE_EXPIRED =
+            "DELETE FROM rate_limit_buckets WHERE expires_at < ? ORDER BY expires_at LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final ProxyManager<String> proxyManager;
+
+    @Value("${app.rate-limit.jdbc.cleanup-batch-size:1000}")
+    private int cleanupBatchSize = 1000;
+
+    public JdbcRateLimitBucketStore(JdbcTemplate jdbcTemplate,
+            @Value("${app.rate-limit.idle-expiry:5m}") Duration idleExpiry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = jdbcTemplate.getDataSource();
+        this.proxyManager = new JdbcSelectForUpdateProxyManager(ClientSideConfig.getDefault()
+                .withExpirationAfterWriteStrategy(
+                        ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(idleExpiry)));
+    }
+
+    @Override
+    public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+        return proxyManager.builder().build(key, configuration);
+    }
+
+    /**
+     * Rows past their expiry belong to buckets that have refilled completely, so removing
+     * them is indistinguishable from keeping them.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.jdbc.cleanup-interval:PT5M}")
+    public void removeExpiredBuckets() {
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update(DELETE_EXPIRED, System.currentTimeMillis(), cleanupBatchSize);
+            total += deleted;
+        } while (deleted == cleanupBatchSize);
+
+        if (total > 0) {
+            log.debug("Removed {} expired rate limit buckets", total);
+        }
+    }
+
+    private class JdbcSelectForUpdateProxyManager extends AbstractSelectForUpdateBasedProxyManager<String> {
+
+        JdbcSelectForUpdateProxyManager(ClientSideConfig clientSideConfig) {
+            super(clientSideConfig);
+        }
+
+        @Override
+        protected SelectForUpdateBasedTransaction allocateTransaction(String key, Optional<Long> timeoutNanos) {
+            // A connection of its own, so the bucket commits apart from any surrounding transaction
+            Connection connection = call("connection", dataSource::getConnection);
+            return new SelectForUpdateBasedTransaction() {
+
+                @Override
+                public void begin(Optional<Long> timeoutNanos) {
+                    run("begin", () -> connection.setAutoCommit(false));
+                }
+
+                @Override
+                public LockAndGetResult tryLockAndGet(Optional<Long> timeoutNanos) {
+                    return call(SELECT_STATE_FOR_UPDATE, () -> {
+                        try (PreparedStatement statement = connection.prepareStatement(SELECT_STATE_FOR_UPDATE)) {
+                            applyTimeout(statement, timeoutNanos);
+                            statement.setString(1, key);
+                            try (ResultSet rs = statement.executeQuery()) {
+                                if (!rs.next()) {
+                                    return LockAndGetResult.notLocked();
+                                }
+                                byte[] state = rs.getBytes("state");
+                                // A placeholder row holds the lock for the first write but no bucket yet
+                                return LockAndGetResult.locked(state.length == 0 ? null : state);
+                            }
+                        }
+                    });
+                }
+
+                @Override
+                public boolean tryInsertEmptyData(Optional<Long> timeoutNanos) {
+                    try {
+                        return call(INSERT_PLACEHOLDER, () -> {
+                            try (PreparedStatement statement = connection.prepareStatement(INSERT_PLACEHOLDER)) {
+                                applyTimeout(statement, timeoutNanos);
+                                statement.setString(1, key);
+                                return statement.executeUpdate() == 1;
+                            }
+                        });
+                    } catch (DuplicateKeyException e) {
+                        // Another node created the row first; bucket4j retries and locks it
+                        return false;
+                    }
+                }
+
+                @Override
+                public void update(byte[] data, RemoteBucketState newState, Optional<Long> timeoutNanos) {
+                    run(UPDATE_STATE, () -> {
+                        try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATE)) {
+                            applyTimeout(statement, timeoutNanos);
+                            statement.setBytes(1, data);
+                            statement.setLong(2, calculateExpiresAt(newState));
+                            statement.setString(3, key);
+                            statement.executeUpdate();
+                        }
+                    });
+                }
+
+                @Override
+                public void commit(Optional<Long> timeoutNanos) {
+                    run("commit", connection::commit);
+                }
+
+                @Override
+                public void rollback() {
+                    run("rollback", connection::rollback);
+                }
+
+                @Override
+                public void release() {
+                    run("release", connection::close);
+                }
+            };
+        }
+
+        @Override
+        public void removeProxy(String key) {
+            jdbcTemplate.update(DELETE_STATE, key);
+        }
+
+        @Override
+        public boolean isExpireAfterWriteSupported() {
+            return true;
+        }
+
+        private long calculateExpiresAt(RemoteBucketState state) {
+            long now = System.currentTimeMillis();
+            long ttlMillis = getClientSideConfig().getExpirationAfterWriteStrategy()
+                    .map(strategy -> strategy.calculateTimeToLiveMillis(state, now * 1_000_000L))
+                    .orElse(Long.MAX_VALUE - now);
+            return now + Math.max(ttlMillis, 0);
+        }
+
+        private void run(String task, SqlAction action) {
+            call(task, () -> {
+                action.run();
+                return null;
+            });
+        }
+
+        private <T> T call(String task, SqlCall<T> call) {
+            try {
+                return call.call();
+            } catch (SQLException e) {
+                throw jdbcTemplate.getExceptionTranslator().translate("Rate limit bucket " + task, null, e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+}
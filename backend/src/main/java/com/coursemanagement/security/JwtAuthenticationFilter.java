@@ -1,11 +1,13 @@
 package com.coursemanagement.security;
 
 import com.coursemanagement.util.CookieUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -23,26 +25,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final UserVersionRegistry userVersionRegistry;
     private final CookieUtil cookieUtil;
 
+    /**
+     * When enabled, the principal is rebuilt from the access token's claims and the
+     * users table is not consulted at all.
+     */
+    @Value("${jwt.claims-principal:false}")
+    private boolean claimsPrincipal;
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
         try {
             String token = getTokenFromRequest(request);
+            Claims claims = StringUtils.hasText(token) ? jwtTokenProvider.resolveClaims(token) : null;
+
+            if (claims != null) {
+                Long userId = jwtTokenProvider.getUserId(claims);
 
-            if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
-                Long userId = jwtTokenProvider.getUserIdFromToken(token);
-                UserDetails userDetails = userDetailsService.loadUserById(userId);
+                if (userVersionRegistry.isCurrent(userId, jwtTokenProvider.getUserVersion(claims))) {
+                    UserDetails userDetails = resolvePrincipal(userId, claims);
 
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -51,6 +65,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(Long userId, Claims claims) {
+        if (claimsPrincipal) {
+            CustomUserDetails principal = jwtTokenProvider.buildPrincipal(claims);
+            if (principal != null) {
+                return principal;
+            }
+        }
+        return userDetailsService.loadUserById(userId);
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         // First try Authorization header (for backwards compatibility)
         String bearerToken = request.getHeader("Authorization");
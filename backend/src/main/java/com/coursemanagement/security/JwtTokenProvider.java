@@ -1,18 +1,52 @@
 package com.coursemanagement.security;
 
+import com.coursemanagement.model.entity.User;
+import com.coursemanagement.util.HashUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_NAME = "name";
+    private static final String CLAIM_PROVIDER = "provider";
+    private static final String CLAIM_AVATAR_URL = "avatarUrl";
+    private static final String CLAIM_AUTHORITIES = "roles";
+    private static final String CLAIM_VERSION = "ver";
+    private static final String CLAIM_TYPE = "typ";
+
+    private static final String TYPE_ACCESS = "access";
+    private static final String TYPE_REFRESH = "refresh";
+
+    private final MeterRegistry meterRegistry;
+    private final UserVersionRegistry userVersionRegistry;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -22,50 +56,166 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-token-expiration}")
     private long refreshTokenExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Timer verifyTimer;
+
+    /**
+     * Verified access tokens keyed by SHA-256 digest, so the raw bearer credential is
+     * never retained. Each entry expires together with the token it was parsed from.
+     */
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        verifyTimer = Timer.builder("jwt.verify")
+                .description("Time spent parsing and verifying JWT signatures")
+                .register(meterRegistry);
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new TokenLifetimeExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
     }
 
-    public String generateAccessToken(Long userId, String email) {
-        return generateToken(userId, email, accessTokenExpiration);
+    public String generateAccessToken(User user) {
+        Map<String, Object> principalClaims = new HashMap<>();
+        principalClaims.put(CLAIM_NAME, user.getName());
+        if (user.getProvider() != null) {
+            principalClaims.put(CLAIM_PROVIDER, user.getProvider());
+        }
+        if (user.getAvatarUrl() != null) {
+            principalClaims.put(CLAIM_AVATAR_URL, user.getAvatarUrl());
+        }
+        principalClaims.put(CLAIM_AUTHORITIES, List.of(CustomUserDetails.DEFAULT_ROLE));
+        principalClaims.put(CLAIM_VERSION, userVersionRegistry.currentVersion());
+        principalClaims.put(CLAIM_TYPE, TYPE_ACCESS);
+        return generateToken(user.getId(), user.getEmail(), accessTokenExpiration, principalClaims);
     }
 
     public String generateRefreshToken(Long userId, String email) {
-        return generateToken(userId, email, refreshTokenExpiration);
+        // A unique id keeps two refresh tokens minted within the same second distinct,
+        // which rotation relies on because tokens are stored by digest
+        return generateToken(userId, email, refreshTokenExpiration,
+                Map.of(Claims.ID, UUID.randomUUID().toString(), CLAIM_TYPE, TYPE_REFRESH));
     }
 
-    private String generateToken(Long userId, String email, long expiration) {
+    private String generateToken(Long userId, String email, long expiration, Map<String, Object> extraClaims) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
                 .subject(String.valueOf(userId))
-                .claim("email", email)
+                .claim(CLAIM_EMAIL, email)
+                .claims(extraClaims)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Returns the verified claims of an access token, or {@code null} if the token is
+     * invalid, expired or not an access token. Repeated calls for the same token are served
+     * from the cache, which only ever holds access tokens.
+     */
+    public Claims resolveClaims(String token) {
+        String digest = HashUtils.sha256Hex(token);
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
 
-        return Long.parseLong(claims.getSubject());
+        Claims claims = parseClaims(token);
+        if (claims == null || !TYPE_ACCESS.equals(claims.get(CLAIM_TYPE, String.class))) {
+            return null;
+        }
+        verifiedTokens.put(digest, claims);
+        return claims;
+    }
+
+    public boolean isRefreshToken(Claims claims) {
+        return TYPE_REFRESH.equals(claims.get(CLAIM_TYPE, String.class));
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Parses and verifies a token without caching it. Used for single-use tokens such as
+     * refresh tokens, which would only displace access tokens from the cache.
+     */
+    public Claims parseClaims(String token) {
+        long start = System.nanoTime();
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        } finally {
+            verifyTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    public Long getUserId(Claims claims) {
+        return Long.parseLong(claims.getSubject());
+    }
+
+    /**
+     * Returns the user version the access token was issued with.
+     */
+    public long getUserVersion(Claims claims) {
+        return claims.get(CLAIM_VERSION, Long.class);
+    }
+
+    /**
+     * Rebuilds the principal from an access token's claims, or returns {@code null} if the
+     * token does not carry them (tokens issued by older nodes).
+     */
+    public CustomUserDetails buildPrincipal(Claims claims) {
+        List<?> roles = claims.get(CLAIM_AUTHORITIES, List.class);
+        if (roles == null || !claims.containsKey(CLAIM_NAME)) {
+            return null;
+        }
+
+        User user = new User();
+        user.setId(getUserId(claims));
+        user.setEmail(claims.get(CLAIM_EMAIL, String.class));
+        user.setName(claims.get(CLAIM_NAME, String.class));
+        user.setProvider(claims.get(CLAIM_PROVIDER, String.class));
+        user.setAvatarUrl(claims.get(CLAIM_AVATAR_URL, String.class));
+
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+        return new CustomUserDetails(user, authorities);
+    }
+
+    /**
+     * Expires a cached entry at the token's own {@code exp}; reads and writes never extend it.
+     */
+    private static final class TokenLifetimeExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
@@ -0,0 +1,62 @@
+package com.coursemanagement.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Default, in-process store for rate limit buckets; limits are enforced per node.
+ *
+ * A bucket that has been idle longer than its refill period is full again, so dropping
+ * it after {@code idle-expiry} loses no state. Caffeine's striped buffers keep lookups
+ * cheap under contention, and the size bound caps memory no matter how many distinct
+ * clients show up.
+ *
+ * Also created directly by filters whose buckets should stay on the node whatever the
+ * configured backend is.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitBucketStore implements RateLimitBucketStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    @Autowired
+    public LocalRateLimitBucketStore(MeterRegistry meterRegistry,
+            @Value("${app.rate-limit.max-buckets:100000}") long maxBuckets,
+            @Value("${app.rate-limit.idle-expiry:5m}") Duration idleExpiry) {
+        this(meterRegistry, "rate-limit.buckets", maxBuckets, idleExpiry);
+    }
+
+    public LocalRateLimitBucketStore(MeterRegistry meterRegistry, String cacheName, long maxBuckets, Duration idleExpiry) {
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleExpiry)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, cacheName);
+    }
+
+    @Override
+    public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+        return buckets.get(key, k -> {
+            LocalBucketBuilder builder = Bucket.builder();
+            for (Bandwidth bandwidth : configuration.get().getBandwidths()) {
+                builder.addLimit(bandwidth);
+            }
+            return builder.build();
+        });
+    }
+}
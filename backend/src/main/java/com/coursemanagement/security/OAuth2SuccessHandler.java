@@ -5,6 +5,7 @@ import com.coursemanagement.mapper.UserMapper;
 import com.coursemanagement.model.entity.RefreshToken;
 import com.coursemanagement.model.entity.User;
 import com.coursemanagement.util.CookieUtil;
+import com.coursemanagement.util.HashUtils;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -27,6 +28,7 @@ public class OAuth2SuccessHandler implements AuthenticationSuccessHandler {
     private final RefreshTokenMapper refreshTokenMapper;
     private final JwtTokenProvider jwtTokenProvider;
     private final CookieUtil cookieUtil;
+    private final CustomUserDetailsService userDetailsService;
 
     @Value("${jwt.refresh-token-expiration}")
     private long refreshTokenExpiration;
@@ -67,17 +69,18 @@ public class OAuth2SuccessHandler implements AuthenticationSuccessHandler {
                 user.setAvatarUrl(avatarUrl);
                 user.setUpdatedAt(LocalDateTime.now());
                 userMapper.updateById(user);
+                userDetailsService.invalidateUser(user.getId());
             }
         }
 
         // Generate tokens
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail());
+        String accessToken = jwtTokenProvider.generateAccessToken(user);
         String refreshTokenValue = jwtTokenProvider.generateRefreshToken(user.getId(), user.getEmail());
 
         // Store refresh token in database
         RefreshToken refreshToken = new RefreshToken();
         refreshToken.setUserId(user.getId());
-        refreshToken.setToken(refreshTokenValue);
+        refreshToken.setTokenHash(HashUtils.sha256(refreshTokenValue));
         refreshToken.setExpiresAt(LocalDateTime.now().plusSeconds(refreshTokenExpiration / 1000));
         refreshToken.setRevoked(false);
         refreshToken.setCreatedAt(LocalDateTime.now());
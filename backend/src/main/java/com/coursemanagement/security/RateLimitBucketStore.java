@@ -0,0 +1,17 @@
+package com.coursemanagement.security;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+import java.util.function.Supplier;
+
+/**
+ * Backend holding rate limit bucket state, selected with {@code app.rate-limit.backend}.
+ */
+public interface RateLimitBucketStore {
+
+    /**
+     * Returns the bucket for the key, creating it from the configuration on first use.
+     */
+    Bucket resolve(String key, Supplier<BucketConfiguration> configuration);
+}
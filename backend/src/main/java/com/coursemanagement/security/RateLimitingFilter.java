@@ -2,10 +2,12 @@ package com.coursemanagement.security;
 
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
@@ -13,8 +15,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Rate limiting filter for authentication endpoints to prevent brute force attacks.
@@ -24,10 +24,26 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Refresh: 10 requests per minute per IP
  */
 @Component
+@RequiredArgsConstructor
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    private final Map<String, Bucket> loginBuckets = new ConcurrentHashMap<>();
-    private final Map<String, Bucket> refreshBuckets = new ConcurrentHashMap<>();
+    private static final BucketConfiguration LOGIN_LIMIT = BucketConfiguration.builder()
+            // 5 requests per minute for login/register
+            .addLimit(Bandwidth.builder()
+                    .capacity(5)
+                    .refillIntervally(5, Duration.ofMinutes(1))
+                    .build())
+            .build();
+
+    private static final BucketConfiguration REFRESH_LIMIT = BucketConfiguration.builder()
+            // 10 requests per minute for token refresh
+            .addLimit(Bandwidth.builder()
+                    .capacity(10)
+                    .refillIntervally(10, Duration.ofMinutes(1))
+                    .build())
+            .build();
+
+    private final RateLimitBucketStore bucketStore;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -38,23 +54,17 @@ public class RateLimitingFilter extends OncePerRequestFilter {
 
         // Only rate limit auth endpoints
         if (path.contains("/auth/login") || path.contains("/auth/register")) {
-            String clientIp = getClientIp(request);
-            Bucket bucket = loginBuckets.computeIfAbsent(clientIp, this::createLoginBucket);
+            Bucket bucket = bucketStore.resolve("login:" + getClientIp(request), () -> LOGIN_LIMIT);
 
             if (!bucket.tryConsume(1)) {
-                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-                response.setContentType("application/json");
-                response.getWriter().write("{\"message\":\"Too many requests. Please try again later.\",\"status\":429}");
+                rejectRequest(response);
                 return;
             }
         } else if (path.contains("/auth/refresh")) {
-            String clientIp = getClientIp(request);
-            Bucket bucket = refreshBuckets.computeIfAbsent(clientIp, this::createRefreshBucket);
+            Bucket bucket = bucketStore.resolve("refresh:" + getClientIp(request), () -> REFRESH_LIMIT);
 
             if (!bucket.tryConsume(1)) {
-                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-                response.setContentType("application/json");
-                response.getWriter().write("{\"message\":\"Too many requests. Please try again later.\",\"status\":429}");
+                rejectRequest(response);
                 return;
             }
         }
@@ -62,30 +72,15 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private Bucket createLoginBucket(String key) {
-        // 5 requests per minute for login/register
-        Bandwidth limit = Bandwidth.builder()
-                .capacity(5)
-                .refillIntervally(5, Duration.ofMinutes(1))
-                .build();
-        return Bucket.builder().addLimit(limit).build();
-    }
-
-    private Bucket createRefreshBucket(String key) {
-        // 10 requests per minute for token refresh
-        Bandwidth limit = Bandwidth.builder()
-                .capacity(10)
-                .refillIntervally(10, Duration.ofMinutes(1))
-                .build();
-        return Bucket.builder().addLimit(limit).build();
+    private void rejectRequest(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType("application/json");
+        response.getWriter().write("{\"message\":\"Too many requests. Please try again later.\",\"status\":429}");
     }
 
     private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            // Get the first IP in the chain (original client)
-            return xForwardedFor.split(",")[0].trim();
-        }
+        // X-Forwarded-For is resolved by the container (server.forward-headers-strategy) and only
+        // honoured from trusted proxies; reading the raw header here would let clients pick their key
         return request.getRemoteAddr();
     }
 
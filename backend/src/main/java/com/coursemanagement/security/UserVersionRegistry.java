@@ -0,0 +1,64 @@
+package com.coursemanagement.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory revocation check for access tokens.
+ *
+ * Every access token carries a user version taken from a clock that follows the wall clock in
+ * milliseconds but never repeats a value. Bumping a user takes a version from the same clock;
+ * only tokens with a strictly greater version are accepted afterwards, so a token minted in
+ * the same millisecond as the bump is rejected too.
+ *
+ * Entries only need to outlive the access-token lifetime, after which every older token has
+ * expired on its own. They are never evicted earlier, since a lost entry would bring revoked
+ * tokens back.
+ */
+@Component
+public class UserVersionRegistry {
+
+    @Value("${jwt.access-token-expiration}")
+    private long accessTokenExpiration;
+
+    private final AtomicLong lastVersion = new AtomicLong();
+
+    private Cache<Long, Long> revokedUpTo;
+
+    @PostConstruct
+    void init() {
+        revokedUpTo = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(accessTokenExpiration))
+                .build();
+    }
+
+    /**
+     * Returns the version to embed in a token issued now.
+     */
+    public long currentVersion() {
+        return nextVersion();
+    }
+
+    /**
+     * Invalidates every access token issued to the user before this call.
+     */
+    public void bump(Long userId) {
+        revokedUpTo.asMap().merge(userId, nextVersion(), Math::max);
+    }
+
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        Long revoked = revokedUpTo.getIfPresent(userId);
+        return revoked == null || tokenVersion > revoked;
+    }
+
+    private long nextVersion() {
+        long now = System.currentTimeMillis();
+        return lastVersion.updateAndGet(last -> Math.max(last + 1, now));
+    }
+}
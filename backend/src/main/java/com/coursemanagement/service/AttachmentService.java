@@ -9,4 +9,9 @@ public interface AttachmentService extends IService<Attachment> {
     List<Attachment> listByNoteId(Long noteId);
 
     void removeByNoteId(Long noteId);
+
+    /**
+     * Deletes the attachment row and takes it off the note owner's counters.
+     */
+    boolean removeAttachment(Attachment attachment);
 }
@@ -0,0 +1,12 @@
+package com.coursemanagement.service;
+
+public interface CollectionVersionService {
+
+    /**
+     * Weak ETag of the user's collection, changing whenever a write to it commits. Tags of
+     * different users never match.
+     *
+     * @param collection resource name as carried by UserDataChangedEvent, e.g. "Course"
+     */
+    String etag(Long userId, String collection);
+}
@@ -1,6 +1,9 @@
 package com.coursemanagement.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.coursemanagement.model.dto.BulkResult;
+import com.coursemanagement.model.dto.CourseBulkUpdateRequest;
+import com.coursemanagement.model.dto.CursorPage;
 import com.coursemanagement.model.entity.Course;
 
 import java.util.List;
@@ -9,11 +12,19 @@ public interface CourseService extends IService<Course> {
 
     List<Course> listByUserId(Long userId);
 
+    CursorPage<Course> pageByUserId(Long userId, String cursor, Integer limit);
+
     Course getByIdAndUserId(Long id, Long userId);
 
-    void updateByIdAndUserId(Course course, Long userId);
+    Course updateByIdAndUserId(Course course, Long userId);
 
     void removeByIdAndUserId(Long id, Long userId);
 
     Course updateProgress(Long id, Integer progress, Long userId);
+
+    BulkResult<Course> createBatch(List<Course> courses, Long userId);
+
+    BulkResult<Course> updateBatch(CourseBulkUpdateRequest request, Long userId);
+
+    BulkResult<Course> removeBatchByIdsAndUserId(List<Long> ids, Long userId);
 }
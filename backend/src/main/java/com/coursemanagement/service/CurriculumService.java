@@ -1,6 +1,9 @@
 package com.coursemanagement.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.coursemanagement.model.dto.CurriculumDetail;
+import com.coursemanagement.model.dto.CursorPage;
+import com.coursemanagement.model.dto.MoveCourseRequest;
 import com.coursemanagement.model.entity.Curriculum;
 
 import java.util.List;
@@ -9,9 +12,15 @@ public interface CurriculumService extends IService<Curriculum> {
 
     List<Curriculum> listByUserId(Long userId);
 
+    CursorPage<Curriculum> pageByUserId(Long userId, String cursor, Integer limit);
+
     Curriculum getByIdAndUserId(Long id, Long userId);
 
-    void updateByIdAndUserId(Curriculum curriculum, Long userId);
+    CurriculumDetail getDetailByIdAndUserId(Long id, Long userId);
+
+    List<CurriculumDetail> listDetailsByUserId(Long userId);
+
+    Curriculum updateByIdAndUserId(Curriculum curriculum, Long userId);
 
     void removeByIdAndUserId(Long id, Long userId);
 
@@ -20,4 +29,6 @@ public interface CurriculumService extends IService<Curriculum> {
     void removeCourse(Long curriculumId, Long courseId, Long userId);
 
     void reorderCourses(Long curriculumId, List<Long> courseIds, Long userId);
+
+    void moveCourse(Long curriculumId, Long courseId, MoveCourseRequest request, Long userId);
 }
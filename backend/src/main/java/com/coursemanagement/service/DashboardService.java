@@ -0,0 +1,15 @@
+package com.coursemanagement.service;
+
+import com.coursemanagement.model.dto.DashboardSummary;
+
+import java.util.Map;
+
+public interface DashboardService {
+
+    DashboardSummary getSummary(Long userId);
+
+    /**
+     * Raw per-user counters keyed as in {@link com.coursemanagement.util.CounterKeys}, read uncached.
+     */
+    Map<String, Long> getCounters(Long userId);
+}
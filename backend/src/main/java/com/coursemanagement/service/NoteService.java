@@ -1,6 +1,11 @@
 package com.coursemanagement.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.coursemanagement.model.dto.CursorPage;
+import com.coursemanagement.model.dto.NoteContentPatchRequest;
+import com.coursemanagement.model.dto.NoteContentPatchResult;
+import com.coursemanagement.model.dto.NoteSearchHit;
+import com.coursemanagement.model.dto.NoteSummary;
 import com.coursemanagement.model.entity.Note;
 
 import java.util.List;
@@ -9,11 +14,22 @@ public interface NoteService extends IService<Note> {
 
     List<Note> listByUserId(Long userId);
 
+    List<NoteSummary> listSummariesByUserId(Long userId, Long courseId);
+
+    CursorPage<NoteSummary> pageByUserId(Long userId, Long courseId, String cursor, Integer limit);
+
     List<Note> listByUserIdAndCourseId(Long userId, Long courseId);
 
+    List<NoteSearchHit> search(Long userId, String query, Long courseId, Integer limit);
+
     Note getByIdAndUserId(Long id, Long userId);
 
-    void updateByIdAndUserId(Note note, Long userId);
+    Note updateByIdAndUserId(Note note, Long userId);
+
+    /**
+     * Applies the edits if the content still matches the base hash, otherwise fails with a conflict.
+     */
+    NoteContentPatchResult patchContent(Long id, NoteContentPatchRequest request, Long userId);
 
     void removeByIdAndUserId(Long id, Long userId);
 }
@@ -1,6 +1,9 @@
 package com.coursemanagement.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.coursemanagement.model.dto.BulkResult;
+import com.coursemanagement.model.dto.CursorPage;
+import com.coursemanagement.model.dto.TodoBulkUpdateRequest;
 import com.coursemanagement.model.entity.Todo;
 
 import java.util.List;
@@ -9,13 +12,21 @@ public interface TodoService extends IService<Todo> {
 
     List<Todo> listByUserId(Long userId);
 
+    CursorPage<Todo> pageByUserId(Long userId, String status, String cursor, Integer limit);
+
     List<Todo> listByUserIdAndStatus(Long userId, String status);
 
     Todo getByIdAndUserId(Long id, Long userId);
 
-    void updateByIdAndUserId(Todo todo, Long userId);
+    Todo updateByIdAndUserId(Todo todo, Long userId);
 
     void removeByIdAndUserId(Long id, Long userId);
 
     Todo updateStatus(Long id, String status, Long userId);
+
+    BulkResult<Todo> createBatch(List<Todo> todos, Long userId);
+
+    BulkResult<Todo> updateBatch(TodoBulkUpdateRequest request, Long userId);
+
+    BulkResult<Todo> removeBatchByIdsAndUserId(List<Long> ids, Long userId);
 }
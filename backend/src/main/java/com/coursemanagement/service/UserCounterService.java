@@ -0,0 +1,31 @@
+package com.coursemanagement.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface UserCounterService {
+
+    /**
+     * Adds the deltas to the user's counters; joins the caller's transaction.
+     */
+    void apply(Long userId, Map<String, Long> deltas);
+
+    Map<String, Long> getCounters(Long userId);
+
+    /**
+     * Recomputes the user's counters from the source tables and repairs any drift.
+     *
+     * @return the number of counters that were corrected
+     */
+    int reconcile(Long userId);
+
+    /**
+     * Subtracts the attachment counters of notes that are about to be deleted.
+     */
+    void subtractAttachmentsOfNotes(Collection<Long> noteIds, Map<String, Long> deltas);
+
+    /**
+     * Subtracts the per-course note counters of courses that are about to be deleted.
+     */
+    void subtractNotesInCourses(Long userId, Collection<Long> courseIds, Map<String, Long> deltas);
+}
@@ -3,15 +3,25 @@ package com.coursemanagement.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.coursemanagement.mapper.AttachmentMapper;
+import com.coursemanagement.mapper.NoteMapper;
 import com.coursemanagement.model.entity.Attachment;
 import com.coursemanagement.service.AttachmentService;
+import com.coursemanagement.service.UserCounterService;
+import com.coursemanagement.util.CounterKeys;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
+@RequiredArgsConstructor
 public class AttachmentServiceImpl extends ServiceImpl<AttachmentMapper, Attachment> implements AttachmentService {
 
+    private final NoteMapper noteMapper;
+    private final UserCounterService userCounterService;
+
     @Override
     public List<Attachment> listByNoteId(Long noteId) {
         return list(new LambdaQueryWrapper<Attachment>()
@@ -20,8 +30,44 @@ public class AttachmentServiceImpl extends ServiceImpl<AttachmentMapper, Attachm
     }
 
     @Override
+    @Transactional
     public void removeByNoteId(Long noteId) {
-        remove(new LambdaQueryWrapper<Attachment>()
-                .eq(Attachment::getNoteId, noteId));
+        List<Attachment> attachments = list(new LambdaQueryWrapper<Attachment>()
+                .select(Attachment::getId, Attachment::getNoteId, Attachment::getFileSize)
+                .eq(Attachment::getNoteId, noteId)
+                .last("FOR UPDATE"));
+        attachments.forEach(this::removeAttachment);
+    }
+
+    // Attachments count toward the owner of their note
+    @Override
+    @Transactional
+    public boolean save(Attachment attachment) {
+        boolean saved = super.save(attachment);
+        count(attachment, 1);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public boolean removeAttachment(Attachment attachment) {
+        // Only the request that actually deleted the row subtracts it
+        if (!removeById(attachment.getId())) {
+            return false;
+        }
+        count(attachment, -1);
+        return true;
+    }
+
+    private void count(Attachment attachment, long sign) {
+        Long userId = noteMapper.selectUserIdById(attachment.getNoteId());
+        if (userId == null) {
+            return;
+        }
+        long size = attachment.getFileSize() != null ? attachment.getFileSize() : 0;
+        userCounterService.apply(userId, Map.of(
+                CounterKeys.ATTACHMENTS, sign,
+                CounterKeys.attachmentsOnNote(attachment.getNoteId()), sign,
+                CounterKeys.STORAGE_BYTES, sign * size));
     }
 }
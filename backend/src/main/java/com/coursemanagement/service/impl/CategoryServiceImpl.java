@@ -1,8 +1,7 @@
 package com.coursemanagement.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import com.coursemanagement.exception.ResourceNotFoundException;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.coursemanagement.mapper.CategoryMapper;
 import com.coursemanagement.model.entity.Category;
 import com.coursemanagement.service.CategoryService;
@@ -12,7 +11,22 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
-public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> implements CategoryService {
+public class CategoryServiceImpl extends OwnedEntityServiceImpl<CategoryMapper, Category> implements CategoryService {
+
+    @Override
+    protected SFunction<Category, Long> idColumn() {
+        return Category::getId;
+    }
+
+    @Override
+    protected SFunction<Category, Long> userIdColumn() {
+        return Category::getUserId;
+    }
+
+    @Override
+    protected String resourceName() {
+        return "Category";
+    }
 
     @Override
     public List<Category> listByUserId(Long userId) {
@@ -30,15 +44,4 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
         save(category);
         return category;
     }
-
-    @Override
-    public void removeByIdAndUserId(Long id, Long userId) {
-        Category category = getOne(new LambdaQueryWrapper<Category>()
-                .eq(Category::getId, id)
-                .eq(Category::getUserId, userId));
-        if (category == null) {
-            throw new ResourceNotFoundException("Category not found with id: " + id);
-        }
-        removeById(id);
-    }
 }
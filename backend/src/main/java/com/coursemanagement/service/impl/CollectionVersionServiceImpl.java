@@ -0,0 +1,36 @@
+package com.coursemanagement.service.impl;
+
+import com.coursemanagement.event.UserDataChangedEvent;
+import com.coursemanagement.mapper.CollectionVersionMapper;
+import com.coursemanagement.service.CollectionVersionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Per-user collection versions kept in {@code collection_versions}, so every node answers
+ * with the same ETag and a write through one node is seen by all of them.
+ *
+ * The version is bumped inside the writing transaction and becomes visible together with
+ * the write. Readers take the ETag before loading the list, so a body can be newer than its
+ * tag but never older. A conditional GET costs one primary key read instead of the list query.
+ */
+@Service
+@RequiredArgsConstructor
+public class CollectionVersionServiceImpl implements CollectionVersionService {
+
+    private final CollectionVersionMapper collectionVersionMapper;
+
+    @Override
+    public String etag(Long userId, String collection) {
+        Long version = collectionVersionMapper.selectVersion(userId, collection);
+        // The user id keeps one user's cached tag from matching another user's list on a shared browser
+        return "W/\"" + userId + "-" + Long.toString(version != null ? version : 0L, 36) + "\"";
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        collectionVersionMapper.bump(event.userId(), event.collection());
+    }
+}
@@ -1,18 +1,96 @@
 package com.coursemanagement.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import com.coursemanagement.exception.ResourceNotFoundException;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.coursemanagement.event.NoteChangedEvent;
+import com.coursemanagement.event.UserDataChangedEvent;
+import com.coursemanagement.exception.BadRequestException;
 import com.coursemanagement.mapper.CourseMapper;
+import com.coursemanagement.mapper.NoteMapper;
+import com.coursemanagement.model.dto.BulkResult;
+import com.coursemanagement.model.dto.CourseBulkUpdateRequest;
+import com.coursemanagement.model.dto.CursorPage;
 import com.coursemanagement.model.entity.Course;
+import com.coursemanagement.model.entity.Note;
 import com.coursemanagement.service.CourseService;
+import com.coursemanagement.util.CounterKeys;
+import com.coursemanagement.util.KeysetPagination;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
-public class CourseServiceImpl extends ServiceImpl<CourseMapper, Course> implements CourseService {
+@RequiredArgsConstructor
+public class CourseServiceImpl extends OwnedEntityServiceImpl<CourseMapper, Course> implements CourseService {
+
+    private final NoteMapper noteMapper;
+
+    @Override
+    protected SFunction<Course, Long> idColumn() {
+        return Course::getId;
+    }
+
+    @Override
+    protected SFunction<Course, Long> userIdColumn() {
+        return Course::getUserId;
+    }
+
+    @Override
+    protected String resourceName() {
+        return "Course";
+    }
+
+    @Override
+    protected boolean keepsCounters() {
+        return true;
+    }
+
+    @Override
+    protected List<SFunction<Course, ?>> counterColumns() {
+        return List.of(Course::getStatus);
+    }
+
+    @Override
+    protected void countRow(Course course, long sign, Map<String, Long> deltas) {
+        String status = course.getStatus() != null ? course.getStatus() : "not_started"; // column default
+        deltas.merge(CounterKeys.COURSES, sign, Long::sum);
+        deltas.merge(CounterKeys.courseStatus(status), sign, Long::sum);
+    }
+
+    // Notes of a deleted course are detached (ON DELETE SET NULL)
+    @Override
+    protected void countCascade(List<Course> removed, Long userId, Map<String, Long> deltas) {
+        userCounterService().subtractNotesInCourses(userId, removed.stream().map(Course::getId).toList(), deltas);
+    }
+
+    @Override
+    @Transactional
+    public void removeByIdAndUserId(Long id, Long userId) {
+        List<Note> detachedNotes = selectNotesInCourses(List.of(id));
+        super.removeByIdAndUserId(id, userId);
+        publishDetached(userId, detachedNotes);
+    }
+
+    @Override
+    @Transactional
+    public BulkResult<Course> removeBatchByIdsAndUserId(List<Long> ids, Long userId) {
+        List<Note> notesInCourses = selectNotesInCourses(ids);
+        BulkResult<Course> result = super.removeBatchByIdsAndUserId(ids, userId);
+        Set<Long> deleted = result.getResults().stream()
+                .filter(item -> BulkResult.DELETED.equals(item.getStatus()))
+                .map(BulkResult.Item::getId)
+                .collect(Collectors.toSet());
+        publishDetached(userId, notesInCourses.stream()
+                .filter(note -> deleted.contains(note.getCourseId()))
+                .toList());
+        return result;
+    }
 
     @Override
     public List<Course> listByUserId(Long userId) {
@@ -22,47 +100,78 @@ public class CourseServiceImpl extends ServiceImpl<CourseMapper, Course> impleme
     }
 
     @Override
-    public Course getByIdAndUserId(Long id, Long userId) {
-        Course course = getOne(new LambdaQueryWrapper<Course>()
-                .eq(Course::getId, id)
-                .eq(Course::getUserId, userId));
-        if (course == null) {
-            throw new ResourceNotFoundException("Course not found with id: " + id);
-        }
-        return course;
+    public CursorPage<Course> pageByUserId(Long userId, String cursor, Integer limit) {
+        LambdaQueryWrapper<Course> query = new LambdaQueryWrapper<Course>()
+                .eq(Course::getUserId, userId);
+        return KeysetPagination.page(this, query, Course::getCreatedAt, Course::getId, cursor, limit);
     }
 
     @Override
-    public void updateByIdAndUserId(Course course, Long userId) {
-        Course existing = getByIdAndUserId(course.getId(), userId);
-        course.setUserId(existing.getUserId());
-        course.setCreatedAt(existing.getCreatedAt());
+    @Transactional
+    public Course updateByIdAndUserId(Course course, Long userId) {
+        course.setUserId(userId);
+        course.setCreatedAt(null); // never rewritten, even if the client sent one
         course.setUpdatedAt(LocalDateTime.now());
-        updateById(course);
-    }
-
-    @Override
-    public void removeByIdAndUserId(Long id, Long userId) {
-        getByIdAndUserId(id, userId); // Verify ownership
-        removeById(id);
+        return updateOwned(course, course.getId(), userId);
     }
 
     @Override
+    @Transactional
     public Course updateProgress(Long id, Integer progress, Long userId) {
-        Course course = getByIdAndUserId(id, userId);
+        Course course = new Course();
+        course.setId(id);
+        course.setUserId(userId);
         course.setProgress(progress);
+        course.setStatus(statusForProgress(progress));
         course.setUpdatedAt(LocalDateTime.now());
+        return updateOwned(course, id, userId);
+    }
 
-        // Auto-update status based on progress
+    @Override
+    @Transactional
+    public BulkResult<Course> createBatch(List<Course> courses, Long userId) {
+        courses.forEach(course -> course.setUserId(userId));
+        return saveBatchWithResults(courses);
+    }
+
+    @Override
+    @Transactional
+    public BulkResult<Course> updateBatch(CourseBulkUpdateRequest request, Long userId) {
+        if (request.getProgress() == null && request.getStatus() == null) {
+            throw new BadRequestException("Nothing to update");
+        }
+        String status = request.getProgress() != null ? statusForProgress(request.getProgress()) : request.getStatus();
+        LocalDateTime now = LocalDateTime.now();
+        return updateOwnedBatch(request.getIds(), userId, id -> {
+            Course course = new Course();
+            course.setId(id);
+            course.setProgress(request.getProgress());
+            course.setStatus(status);
+            course.setUpdatedAt(now);
+            return course;
+        });
+    }
+
+    private List<Note> selectNotesInCourses(List<Long> courseIds) {
+        return noteMapper.selectList(new LambdaQueryWrapper<Note>()
+                .select(Note::getId, Note::getCourseId)
+                .in(Note::getCourseId, courseIds));
+    }
+
+    // Notes and todos of deleted courses lose their course id (ON DELETE SET NULL)
+    private void publishDetached(Long userId, List<Note> detachedNotes) {
+        publishEvent(new UserDataChangedEvent(userId, "Note"));
+        publishEvent(new UserDataChangedEvent(userId, "Todo"));
+        detachedNotes.forEach(note -> publishEvent(NoteChangedEvent.changed(note.getId())));
+    }
+
+    // Auto-update status based on progress
+    private static String statusForProgress(int progress) {
         if (progress == 0) {
-            course.setStatus("not_started");
+            return "not_started";
         } else if (progress == 100) {
-            course.setStatus("completed");
-        } else {
-            course.setStatus("in_progress");
+            return "completed";
         }
-
-        updateById(course);
-        return course;
+        return "in_progress";
     }
 }
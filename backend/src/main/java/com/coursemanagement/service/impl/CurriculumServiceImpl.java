@@ -1,27 +1,69 @@
 package com.coursemanagement.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.coursemanagement.exception.BadRequestException;
 import com.coursemanagement.exception.ResourceNotFoundException;
 import com.coursemanagement.mapper.CurriculumCourseMapper;
 import com.coursemanagement.mapper.CurriculumMapper;
+import com.coursemanagement.model.dto.CursorPage;
+import com.coursemanagement.model.dto.MoveCourseRequest;
+import com.coursemanagement.model.dto.CurriculumDetail;
 import com.coursemanagement.model.entity.Curriculum;
 import com.coursemanagement.model.entity.CurriculumCourse;
 import com.coursemanagement.service.CurriculumService;
+import com.coursemanagement.util.CounterKeys;
+import com.coursemanagement.util.KeysetPagination;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
-public class CurriculumServiceImpl extends ServiceImpl<CurriculumMapper, Curriculum> implements CurriculumService {
+public class CurriculumServiceImpl extends OwnedEntityServiceImpl<CurriculumMapper, Curriculum> implements CurriculumService {
+
+    /**
+     * Spacing between order_index values, so a move only rewrites the moved row.
+     */
+    static final int ORDER_GAP = 1024;
+
+    /**
+     * A move that leaves neighbors closer than this respaces the curriculum right away.
+     */
+    static final int REBALANCE_THRESHOLD = 8;
 
     private final CurriculumCourseMapper curriculumCourseMapper;
 
+    @Override
+    protected SFunction<Curriculum, Long> idColumn() {
+        return Curriculum::getId;
+    }
+
+    @Override
+    protected SFunction<Curriculum, Long> userIdColumn() {
+        return Curriculum::getUserId;
+    }
+
+    @Override
+    protected String resourceName() {
+        return "Curriculum";
+    }
+
+    @Override
+    protected boolean keepsCounters() {
+        return true;
+    }
+
+    @Override
+    protected void countRow(Curriculum curriculum, long sign, Map<String, Long> deltas) {
+        deltas.merge(CounterKeys.CURRICULUMS, sign, Long::sum);
+    }
+
     @Override
     public List<Curriculum> listByUserId(Long userId) {
         return list(new LambdaQueryWrapper<Curriculum>()
@@ -30,36 +72,41 @@ public class CurriculumServiceImpl extends ServiceImpl<CurriculumMapper, Curricu
     }
 
     @Override
-    public Curriculum getByIdAndUserId(Long id, Long userId) {
-        Curriculum curriculum = getOne(new LambdaQueryWrapper<Curriculum>()
-                .eq(Curriculum::getId, id)
-                .eq(Curriculum::getUserId, userId));
-        if (curriculum == null) {
+    public CursorPage<Curriculum> pageByUserId(Long userId, String cursor, Integer limit) {
+        LambdaQueryWrapper<Curriculum> query = new LambdaQueryWrapper<Curriculum>()
+                .eq(Curriculum::getUserId, userId);
+        return KeysetPagination.page(this, query, Curriculum::getCreatedAt, Curriculum::getId, cursor, limit);
+    }
+
+    @Override
+    public CurriculumDetail getDetailByIdAndUserId(Long id, Long userId) {
+        CurriculumDetail detail = baseMapper.selectDetail(id, userId);
+        if (detail == null) {
             throw new ResourceNotFoundException("Curriculum not found with id: " + id);
         }
-        return curriculum;
+        return rollUp(detail);
     }
 
     @Override
-    public void updateByIdAndUserId(Curriculum curriculum, Long userId) {
-        Curriculum existing = getByIdAndUserId(curriculum.getId(), userId);
-        curriculum.setUserId(existing.getUserId());
-        curriculum.setCreatedAt(existing.getCreatedAt());
-        curriculum.setUpdatedAt(LocalDateTime.now());
-        updateById(curriculum);
+    public List<CurriculumDetail> listDetailsByUserId(Long userId) {
+        List<CurriculumDetail> details = baseMapper.selectDetailsByUserId(userId);
+        details.forEach(CurriculumServiceImpl::rollUp);
+        return details;
     }
 
     @Override
-    public void removeByIdAndUserId(Long id, Long userId) {
-        getByIdAndUserId(id, userId); // Verify ownership
-        // Cascade delete is handled by database FK
-        removeById(id);
+    @Transactional
+    public Curriculum updateByIdAndUserId(Curriculum curriculum, Long userId) {
+        curriculum.setUserId(userId);
+        curriculum.setCreatedAt(null); // never rewritten, even if the client sent one
+        curriculum.setUpdatedAt(LocalDateTime.now());
+        return updateOwned(curriculum, curriculum.getId(), userId);
     }
 
     @Override
     @Transactional
     public void addCourse(Long curriculumId, Long courseId, Long userId) {
-        getByIdAndUserId(curriculumId, userId); // Verify ownership
+        lockOwnedCurriculum(curriculumId, userId);
 
         CurriculumCourse existing = curriculumCourseMapper.selectOne(
                 new LambdaQueryWrapper<CurriculumCourse>()
@@ -70,16 +117,21 @@ public class CurriculumServiceImpl extends ServiceImpl<CurriculumMapper, Curricu
             throw new BadRequestException("Course already in curriculum");
         }
 
-        Long maxOrder = curriculumCourseMapper.selectCount(
-                new LambdaQueryWrapper<CurriculumCourse>()
-                        .eq(CurriculumCourse::getCurriculumId, curriculumId));
+        // Append one gap after the current last course
+        Integer maxOrder = curriculumCourseMapper.selectMaxOrderIndex(curriculumId);
+        int orderIndex = maxOrder == null ? 0 : maxOrder + ORDER_GAP;
+        if (maxOrder != null && maxOrder > Integer.MAX_VALUE - ORDER_GAP) {
+            curriculumCourseMapper.rebalance(curriculumId, ORDER_GAP);
+            orderIndex = curriculumCourseMapper.selectMaxOrderIndex(curriculumId) + ORDER_GAP;
+        }
 
         CurriculumCourse cc = new CurriculumCourse();
         cc.setCurriculumId(curriculumId);
         cc.setCourseId(courseId);
-        cc.setOrderIndex(maxOrder.intValue());
+        cc.setOrderIndex(orderIndex);
         cc.setCreatedAt(LocalDateTime.now());
         curriculumCourseMapper.insert(cc);
+        publishChange(userId);
     }
 
     @Override
@@ -91,22 +143,139 @@ public class CurriculumServiceImpl extends ServiceImpl<CurriculumMapper, Curricu
                 new LambdaQueryWrapper<CurriculumCourse>()
                         .eq(CurriculumCourse::getCurriculumId, curriculumId)
                         .eq(CurriculumCourse::getCourseId, courseId));
+        publishChange(userId);
     }
 
     @Override
     @Transactional
     public void reorderCourses(Long curriculumId, List<Long> courseIds, Long userId) {
-        getByIdAndUserId(curriculumId, userId); // Verify ownership
+        if (courseIds == null || courseIds.isEmpty()) {
+            throw new BadRequestException("courseIds must not be empty");
+        }
+        if (new HashSet<>(courseIds).size() != courseIds.size()) {
+            throw new BadRequestException("courseIds must not contain duplicates");
+        }
+
+        int matched = curriculumCourseMapper.reorder(curriculumId, userId, courseIds, ORDER_GAP);
+        if (matched != courseIds.size()) {
+            // Only on failure: tell a foreign curriculum (404) apart from foreign course ids (400)
+            getByIdAndUserId(curriculumId, userId);
+            throw new BadRequestException("Every course must belong to the curriculum");
+        }
+        publishChange(userId);
+    }
+
+    @Override
+    @Transactional
+    public void moveCourse(Long curriculumId, Long courseId, MoveCourseRequest request, Long userId) {
+        if ((request.getAfterCourseId() == null) == (request.getBeforeCourseId() == null)) {
+            throw new BadRequestException("Exactly one of afterCourseId and beforeCourseId is required");
+        }
+        boolean after = request.getAfterCourseId() != null;
+        Long anchorCourseId = after ? request.getAfterCourseId() : request.getBeforeCourseId();
+        if (anchorCourseId.equals(courseId)) {
+            throw new BadRequestException("A course cannot be moved relative to itself");
+        }
+
+        lockOwnedCurriculum(curriculumId, userId);
+        CurriculumCourse moving = findCurriculumCourse(curriculumId, courseId);
+
+        Slot slot = slotNextTo(curriculumId, moving, anchorCourseId, after);
+        if (slot.middle() == null) {
+            // No free key left between the neighbors (rows from before the gaps): respace and place again
+            curriculumCourseMapper.rebalance(curriculumId, ORDER_GAP);
+            slot = slotNextTo(curriculumId, moving, anchorCourseId, after);
+        }
+
+        moving.setOrderIndex(slot.middle());
+        curriculumCourseMapper.updateById(moving);
+        if (slot.crowded()) {
+            // Respace while the curriculum is still locked, before later moves run out of room
+            curriculumCourseMapper.rebalance(curriculumId, ORDER_GAP);
+        }
+        publishChange(userId);
+    }
+
+    /**
+     * The open interval of keys between the anchor and its neighbor on the requested side.
+     * Moving to either end leaves one full gap past the anchor.
+     */
+    record Slot(long low, long high) {
+
+        static Slot nextTo(int anchorIndex, Integer neighborIndex, boolean after) {
+            if (neighborIndex == null) {
+                return after
+                        ? new Slot(anchorIndex, (long) anchorIndex + 2 * ORDER_GAP)
+                        : new Slot((long) anchorIndex - 2 * ORDER_GAP, anchorIndex);
+            }
+            return new Slot(Math.min(anchorIndex, neighborIndex), Math.max(anchorIndex, neighborIndex));
+        }
+
+        /**
+         * The key halfway between the bounds, or null when they are adjacent or the key
+         * would not fit in an int.
+         */
+        Integer middle() {
+            long middle = low + (high - low) / 2;
+            if (middle == low || middle < Integer.MIN_VALUE || middle > Integer.MAX_VALUE) {
+                return null;
+            }
+            return (int) middle;
+        }
+
+        /**
+         * Whether a key placed in the middle leaves neighbors closer than the threshold.
+         */
+        boolean crowded() {
+            return high - low < 2 * REBALANCE_THRESHOLD;
+        }
+    }
+
+    private Slot slotNextTo(Long curriculumId, CurriculumCourse moving, Long anchorCourseId, boolean after) {
+        int anchorIndex = findCurriculumCourse(curriculumId, anchorCourseId).getOrderIndex();
+
+        LambdaQueryWrapper<CurriculumCourse> neighborQuery = new LambdaQueryWrapper<CurriculumCourse>()
+                .eq(CurriculumCourse::getCurriculumId, curriculumId)
+                .ne(CurriculumCourse::getId, moving.getId());
+        if (after) {
+            neighborQuery.gt(CurriculumCourse::getOrderIndex, anchorIndex).orderByAsc(CurriculumCourse::getOrderIndex);
+        } else {
+            neighborQuery.lt(CurriculumCourse::getOrderIndex, anchorIndex).orderByDesc(CurriculumCourse::getOrderIndex);
+        }
+        CurriculumCourse neighbor = curriculumCourseMapper.selectOne(neighborQuery.last("LIMIT 1"));
+        return Slot.nextTo(anchorIndex, neighbor != null ? neighbor.getOrderIndex() : null, after);
+    }
+
+    private CurriculumCourse findCurriculumCourse(Long curriculumId, Long courseId) {
+        CurriculumCourse cc = curriculumCourseMapper.selectOne(
+                new LambdaQueryWrapper<CurriculumCourse>()
+                        .eq(CurriculumCourse::getCurriculumId, curriculumId)
+                        .eq(CurriculumCourse::getCourseId, courseId));
+        if (cc == null) {
+            throw new ResourceNotFoundException("Course " + courseId + " is not in curriculum " + curriculumId);
+        }
+        return cc;
+    }
+
+    private void lockOwnedCurriculum(Long curriculumId, Long userId) {
+        if (baseMapper.lockByIdAndUserId(curriculumId, userId) == null) {
+            throw new ResourceNotFoundException("Curriculum not found with id: " + curriculumId);
+        }
+    }
 
-        for (int i = 0; i < courseIds.size(); i++) {
-            CurriculumCourse cc = curriculumCourseMapper.selectOne(
-                    new LambdaQueryWrapper<CurriculumCourse>()
-                            .eq(CurriculumCourse::getCurriculumId, curriculumId)
-                            .eq(CurriculumCourse::getCourseId, courseIds.get(i)));
-            if (cc != null) {
-                cc.setOrderIndex(i);
-                curriculumCourseMapper.updateById(cc);
+    private static CurriculumDetail rollUp(CurriculumDetail detail) {
+        List<CurriculumDetail.CourseItem> courses = detail.getCourses();
+        int totalProgress = 0;
+        int completed = 0;
+        for (CurriculumDetail.CourseItem course : courses) {
+            totalProgress += course.getProgress() != null ? course.getProgress() : 0;
+            if ("completed".equals(course.getStatus())) {
+                completed++;
             }
         }
+        detail.setCourseCount(courses.size());
+        detail.setCompletedCount(completed);
+        detail.setProgress(courses.isEmpty() ? 0 : Math.round((float) totalProgress / courses.size()));
+        return detail;
     }
 }
@@ -0,0 +1,91 @@
+package com.coursemanagement.service.impl;
+
+import com.coursemanagement.event.UserDataChangedEvent;
+import com.coursemanagement.mapper.DashboardMapper;
+import com.coursemanagement.model.dto.DashboardSummary;
+import com.coursemanagement.service.DashboardService;
+import com.coursemanagement.service.UserCounterService;
+import com.coursemanagement.util.CounterKeys;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class DashboardServiceImpl implements DashboardService {
+
+    private final DashboardMapper dashboardMapper;
+    private final UserCounterService userCounterService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.dashboard-cache.max-size:10000}")
+    private long cacheSize;
+
+    @Value("${app.dashboard-cache.ttl:5m}")
+    private Duration cacheTtl;
+
+    /**
+     * Summaries keyed by user id, evicted when the user's data changes. The TTL bounds
+     * staleness for writes on other nodes and for the date-based progress.
+     */
+    private Cache<Long, DashboardSummary> summaries;
+
+    @PostConstruct
+    void init() {
+        summaries = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries, "dashboard.summaries");
+    }
+
+    @Override
+    public DashboardSummary getSummary(Long userId) {
+        return summaries.get(userId, this::loadSummary);
+    }
+
+    @Override
+    public Map<String, Long> getCounters(Long userId) {
+        return userCounterService.getCounters(userId);
+    }
+
+    // After commit, so a concurrent read cannot cache the pre-write state again
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        summaries.invalidate(event.userId());
+    }
+
+    private DashboardSummary loadSummary(Long userId) {
+        Map<String, Long> counters = userCounterService.getCounters(userId);
+
+        String todoStatusPrefix = CounterKeys.todoStatus("");
+        Map<String, Long> todosByStatus = new LinkedHashMap<>();
+        counters.forEach((key, value) -> {
+            if (key.startsWith(todoStatusPrefix)) {
+                todosByStatus.put(key.substring(todoStatusPrefix.length()), value);
+            }
+        });
+
+        return DashboardSummary.builder()
+                .totalCourses(counters.getOrDefault(CounterKeys.COURSES, 0L))
+                .completedCourses(counters.getOrDefault(CounterKeys.courseStatus("completed"), 0L))
+                .averageProgress(dashboardMapper.selectAverageProgress(userId))
+                .totalNotes(counters.getOrDefault(CounterKeys.NOTES, 0L))
+                .totalCurriculums(counters.getOrDefault(CounterKeys.CURRICULUMS, 0L))
+                .totalTodos(counters.getOrDefault(CounterKeys.TODOS, 0L))
+                .pendingTodos(todosByStatus.getOrDefault("pending", 0L))
+                .todosByStatus(todosByStatus)
+                .build();
+    }
+}
@@ -1,57 +1,321 @@
 package com.coursemanagement.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.coursemanagement.content.NoteContentStore;
+import com.coursemanagement.event.NoteChangedEvent;
+import com.coursemanagement.exception.BadRequestException;
+import com.coursemanagement.exception.ConflictException;
 import com.coursemanagement.exception.ResourceNotFoundException;
 import com.coursemanagement.mapper.NoteMapper;
+import com.coursemanagement.model.dto.CursorPage;
+import com.coursemanagement.model.dto.NoteContentPatchRequest;
+import com.coursemanagement.model.dto.NoteContentPatchResult;
+import com.coursemanagement.model.dto.NoteSearchHit;
+import com.coursemanagement.model.dto.NoteSummary;
 import com.coursemanagement.model.entity.Note;
+import com.coursemanagement.search.NoteSearchIndex;
 import com.coursemanagement.service.NoteService;
+import com.coursemanagement.util.CounterKeys;
+import com.coursemanagement.util.HashUtils;
+import com.coursemanagement.util.KeysetPagination;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 @Service
-public class NoteServiceImpl extends ServiceImpl<NoteMapper, Note> implements NoteService {
+@RequiredArgsConstructor
+public class NoteServiceImpl extends OwnedEntityServiceImpl<NoteMapper, Note> implements NoteService {
+
+    private static final int EXCERPT_LENGTH = 160;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final NoteSearchIndex noteSearchIndex;
+    private final NoteContentStore noteContentStore;
+
+    @Override
+    protected SFunction<Note, Long> idColumn() {
+        return Note::getId;
+    }
+
+    @Override
+    protected SFunction<Note, Long> userIdColumn() {
+        return Note::getUserId;
+    }
+
+    @Override
+    protected String resourceName() {
+        return "Note";
+    }
+
+    @Override
+    protected boolean keepsCounters() {
+        return true;
+    }
+
+    @Override
+    protected List<SFunction<Note, ?>> counterColumns() {
+        return List.of(Note::getCourseId);
+    }
+
+    @Override
+    protected void countRow(Note note, long sign, Map<String, Long> deltas) {
+        deltas.merge(CounterKeys.NOTES, sign, Long::sum);
+        if (note.getCourseId() != null) {
+            deltas.merge(CounterKeys.notesInCourse(note.getCourseId()), sign, Long::sum);
+        }
+    }
+
+    // Attachments of a deleted note go with it (ON DELETE CASCADE)
+    @Override
+    protected void countCascade(List<Note> removed, Long userId, Map<String, Long> deltas) {
+        userCounterService().subtractAttachmentsOfNotes(removed.stream().map(Note::getId).toList(), deltas);
+    }
 
     @Override
     public List<Note> listByUserId(Long userId) {
-        return list(new LambdaQueryWrapper<Note>()
+        return decoded(list(new LambdaQueryWrapper<Note>()
                 .eq(Note::getUserId, userId)
-                .orderByDesc(Note::getCreatedAt));
+                .orderByDesc(Note::getCreatedAt)));
+    }
+
+    @Override
+    public List<NoteSummary> listSummariesByUserId(Long userId, Long courseId) {
+        return list(summaryQuery(userId, courseId).orderByDesc(Note::getCreatedAt)).stream()
+                .map(NoteSummary::from)
+                .toList();
+    }
+
+    @Override
+    public CursorPage<NoteSummary> pageByUserId(Long userId, Long courseId, String cursor, Integer limit) {
+        return KeysetPagination.page(this, summaryQuery(userId, courseId), Note::getCreatedAt, Note::getId,
+                cursor, limit).map(NoteSummary::from);
     }
 
     @Override
     public List<Note> listByUserIdAndCourseId(Long userId, Long courseId) {
-        return list(new LambdaQueryWrapper<Note>()
+        return decoded(list(new LambdaQueryWrapper<Note>()
                 .eq(Note::getUserId, userId)
                 .eq(Note::getCourseId, courseId)
-                .orderByDesc(Note::getCreatedAt));
+                .orderByDesc(Note::getCreatedAt)));
     }
 
     @Override
     public Note getByIdAndUserId(Long id, Long userId) {
-        Note note = getOne(new LambdaQueryWrapper<Note>()
-                .eq(Note::getId, id)
-                .eq(Note::getUserId, userId));
-        if (note == null) {
-            throw new ResourceNotFoundException("Note not found with id: " + id);
+        return decoded(super.getByIdAndUserId(id, userId));
+    }
+
+    @Override
+    public List<NoteSearchHit> search(Long userId, String query, Long courseId, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be blank");
         }
-        return note;
+        return noteSearchIndex.search(userId, query, courseId, KeysetPagination.resolveLimit(limit));
+    }
+
+    @Override
+    @Transactional
+    public boolean save(Note note) {
+        applySummary(note);
+        String content = note.getContent();
+        noteContentStore.encode(note);
+        boolean saved = super.save(note);
+        restoreContent(note, content);
+        publishEvent(NoteChangedEvent.written(note));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public Note updateByIdAndUserId(Note note, Long userId) {
+        note.setUserId(userId);
+        note.setCreatedAt(null); // never rewritten, even if the client sent one
+        note.setUpdatedAt(LocalDateTime.now());
+        applySummary(note);
+        String content = note.getContent();
+        if (content != null) {
+            String replacedRef = lockContentRef(note.getId(), userId);
+            noteContentStore.encode(note);
+            noteContentStore.releaseAfterCommit(replacedRef);
+        }
+        Note updated = updateOwned(note, note.getId(), userId);
+        if (content != null) {
+            restoreContent(updated, content);
+        } else {
+            decoded(updated);
+        }
+        publishEvent(NoteChangedEvent.written(updated));
+        return updated;
     }
 
     @Override
-    public void updateByIdAndUserId(Note note, Long userId) {
-        Note existing = getByIdAndUserId(note.getId(), userId);
-        note.setUserId(existing.getUserId());
-        note.setCreatedAt(existing.getCreatedAt());
+    @Transactional
+    public NoteContentPatchResult patchContent(Long id, NoteContentPatchRequest request, Long userId) {
+        Note current = getOne(new LambdaQueryWrapper<Note>()
+                .select(Note::getId, Note::getContent, Note::getContentData, Note::getContentRef, Note::getContentHash)
+                .eq(Note::getId, id)
+                .eq(Note::getUserId, userId)
+                .last("FOR UPDATE"));
+        if (current == null) {
+            throw new ResourceNotFoundException(resourceName(), id);
+        }
+        String replacedRef = current.getContentRef();
+        decoded(current);
+        if (!current.getContentHash().equalsIgnoreCase(request.getBaseHash())) {
+            throw new ConflictException("Note content has changed since version " + request.getBaseHash());
+        }
+
+        Note note = new Note();
+        note.setId(id);
+        note.setUserId(userId);
+        String content = applyOperations(current.getContent(), request.getOperations());
+        note.setContent(content);
         note.setUpdatedAt(LocalDateTime.now());
-        updateById(note);
+        applySummary(note);
+        noteContentStore.encode(note);
+        noteContentStore.releaseAfterCommit(replacedRef);
+        Note updated = updateOwned(note, id, userId);
+        restoreContent(updated, content);
+        publishEvent(NoteChangedEvent.written(updated));
+
+        return NoteContentPatchResult.builder()
+                .id(id)
+                .contentHash(updated.getContentHash())
+                .contentLength(updated.getContentLength())
+                .updatedAt(updated.getUpdatedAt())
+                .build();
     }
 
     @Override
+    @Transactional
     public void removeByIdAndUserId(Long id, Long userId) {
-        getByIdAndUserId(id, userId); // Verify ownership
-        removeById(id);
+        String contentRef = lockContentRef(id, userId);
+        super.removeByIdAndUserId(id, userId);
+        noteContentStore.releaseAfterCommit(contentRef);
+        publishEvent(NoteChangedEvent.deleted(id));
+    }
+
+    /**
+     * Returns the blob key the note currently references, if any, and locks the row so no
+     * concurrent write can replace it first.
+     */
+    private String lockContentRef(Long id, Long userId) {
+        Note current = getOne(new LambdaQueryWrapper<Note>()
+                .select(Note::getId, Note::getContentRef)
+                .eq(Note::getId, id)
+                .eq(Note::getUserId, userId)
+                .last("FOR UPDATE"));
+        if (current == null) {
+            throw new ResourceNotFoundException(resourceName(), id);
+        }
+        return current.getContentRef();
+    }
+
+    private List<Note> decoded(List<Note> notes) {
+        notes.forEach(this::decoded);
+        return notes;
+    }
+
+    /**
+     * Restores the plain content and fills in the hash of rows written before it was kept.
+     */
+    private Note decoded(Note note) {
+        if (note == null) {
+            return null;
+        }
+        noteContentStore.decode(note);
+        if (note.getContentHash() == null) {
+            note.setContentHash(HashUtils.sha256Hex(note.getContent() != null ? note.getContent() : ""));
+        }
+        return note;
+    }
+
+    /**
+     * Applies the operations to the base content, rejecting any that are out of order, overlap,
+     * reach past the end or split a surrogate pair.
+     */
+    static String applyOperations(String base, List<NoteContentPatchRequest.Operation> operations) {
+        String content = base != null ? base : "";
+        StringBuilder result = new StringBuilder(content.length());
+        int copied = 0;
+        for (NoteContentPatchRequest.Operation operation : operations) {
+            int start = operation.getPosition();
+            long deleteEnd = (long) start + (operation.getDeleteCount() != null ? operation.getDeleteCount() : 0);
+            if (start < copied) {
+                throw new BadRequestException("Operations must be ordered by position and must not overlap");
+            }
+            if (deleteEnd < start) {
+                throw new BadRequestException("Delete count must not be negative");
+            }
+            if (start > content.length() || deleteEnd > content.length()) {
+                throw new BadRequestException("Operation at " + start + " reaches past the end of the content");
+            }
+            int end = (int) deleteEnd;
+            if (splitsSurrogatePair(content, start) || splitsSurrogatePair(content, end)) {
+                throw new BadRequestException("Operation at " + start + " splits a character");
+            }
+            result.append(content, copied, start);
+            if (operation.getInsert() != null) {
+                result.append(operation.getInsert());
+            }
+            copied = end;
+        }
+        return result.append(content, copied, content.length()).toString();
+    }
+
+    private static boolean splitsSurrogatePair(String content, int index) {
+        return index > 0 && index < content.length()
+                && Character.isHighSurrogate(content.charAt(index - 1))
+                && Character.isLowSurrogate(content.charAt(index));
+    }
+
+    /**
+     * Puts the plain content back on the entity after a write, for the response, instead of
+     * decoding what was just encoded.
+     */
+    private static void restoreContent(Note note, String content) {
+        note.setContent(content);
+        note.setContentData(null);
+        note.setContentRef(null);
+    }
+
+    /**
+     * Selects everything but the content columns.
+     */
+    private LambdaQueryWrapper<Note> summaryQuery(Long userId, Long courseId) {
+        return new LambdaQueryWrapper<Note>()
+                .select(Note::getId, Note::getCourseId, Note::getTitle, Note::getExcerpt,
+                        Note::getContentLength, Note::getCreatedAt, Note::getUpdatedAt)
+                .eq(Note::getUserId, userId)
+                .eq(courseId != null, Note::getCourseId, courseId);
+    }
+
+    /**
+     * Derives the summary and hash columns from the content. When the content is not part of
+     * the write they are left untouched, since null fields are skipped by updateById.
+     */
+    private static void applySummary(Note note) {
+        if (note.getContent() == null) {
+            note.setExcerpt(null);
+            note.setContentLength(null);
+            note.setContentHash(null);
+            return;
+        }
+        note.setExcerpt(excerpt(note.getContent()));
+        note.setContentLength(note.getContent().length());
+        note.setContentHash(HashUtils.sha256Hex(note.getContent()));
+    }
+
+    private static String excerpt(String content) {
+        String collapsed = WHITESPACE.matcher(content.strip()).replaceAll(" ");
+        if (collapsed.codePointCount(0, collapsed.length()) <= EXCERPT_LENGTH) {
+            return collapsed;
+        }
+        return collapsed.substring(0, collapsed.offsetByCodePoints(0, EXCERPT_LENGTH));
     }
 }
@@ -0,0 +1,328 @@
+package com.coursemanagement.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.coursemanagement.event.UserDataChangedEvent;
+import com.coursemanagement.exception.ResourceNotFoundException;
+import com.coursemanagement.model.dto.BulkResult;
+import com.coursemanagement.service.UserCounterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Base for services whose rows belong to a single user.
+ *
+ * Writes are one statement scoped by {@code WHERE id = ? AND user_id = ?}; a row count of zero
+ * means the row is missing or foreign and becomes a 404. Connector/J reports matched rather than
+ * changed rows, so an update that leaves every value as it was still counts as found.
+ * Every successful write publishes a {@link UserDataChangedEvent} for the owner.
+ *
+ * Services that keep counters describe each row's contribution in {@link #countRow}; inserts,
+ * deletes and updates of a counted column then add the matching deltas to the owner's
+ * {@code user_counters} in the same transaction. Deletes and such updates first lock the
+ * affected rows, so the values they subtract are the ones actually removed; an update's new
+ * values are the locked row with the non-null changes laid over it, as the UPDATE writes them.
+ * Updates return the row as written, never the partial changes.
+ */
+public abstract class OwnedEntityServiceImpl<M extends BaseMapper<T>, T> extends ServiceImpl<M, T>
+        implements ApplicationEventPublisherAware {
+
+    private ApplicationEventPublisher eventPublisher;
+    private UserCounterService userCounterService;
+
+    protected abstract SFunction<T, Long> idColumn();
+
+    protected abstract SFunction<T, Long> userIdColumn();
+
+    /**
+     * Name used in not-found messages, e.g. "Course".
+     */
+    protected abstract String resourceName();
+
+    protected boolean keepsCounters() {
+        return false;
+    }
+
+    /**
+     * Columns read by {@link #countRow}; updates leaving all of them null skip the counters.
+     */
+    protected List<SFunction<T, ?>> counterColumns() {
+        return List.of();
+    }
+
+    /**
+     * Adds the row's contribution to its owner's counters, multiplied by {@code sign}
+     * (1 when the row appears, -1 when it goes away).
+     */
+    protected void countRow(T row, long sign, Map<String, Long> deltas) {
+    }
+
+    /**
+     * Subtracts counters of other collections that the database changes when these rows are
+     * deleted (ON DELETE CASCADE / SET NULL). Runs before the delete.
+     */
+    protected void countCascade(List<T> removed, Long userId, Map<String, Long> deltas) {
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Autowired
+    void setUserCounterService(UserCounterService userCounterService) {
+        this.userCounterService = userCounterService;
+    }
+
+    protected UserCounterService userCounterService() {
+        return userCounterService;
+    }
+
+    @Override
+    @Transactional
+    public boolean save(T entity) {
+        boolean saved = super.save(entity);
+        if (keepsCounters()) {
+            Map<String, Long> deltas = new HashMap<>();
+            countRow(entity, 1, deltas);
+            userCounterService.apply(userIdColumn().apply(entity), deltas);
+        }
+        publishChange(userIdColumn().apply(entity));
+        return saved;
+    }
+
+    public T getByIdAndUserId(Long id, Long userId) {
+        T entity = getOne(new LambdaQueryWrapper<T>()
+                .eq(idColumn(), id)
+                .eq(userIdColumn(), userId));
+        if (entity == null) {
+            throw new ResourceNotFoundException(resourceName(), id);
+        }
+        return entity;
+    }
+
+    @Transactional
+    public void removeByIdAndUserId(Long id, Long userId) {
+        if (!keepsCounters()) {
+            if (!remove(new LambdaQueryWrapper<T>()
+                    .eq(idColumn(), id)
+                    .eq(userIdColumn(), userId))) {
+                throw new ResourceNotFoundException(resourceName(), id);
+            }
+            publishChange(userId);
+            return;
+        }
+
+        List<T> removed = selectOwnedRows(List.of(id), userId);
+        if (removed.isEmpty()) {
+            throw new ResourceNotFoundException(resourceName(), id);
+        }
+        Map<String, Long> deltas = removalDeltas(removed, userId);
+        remove(new LambdaQueryWrapper<T>()
+                .eq(idColumn(), id)
+                .eq(userIdColumn(), userId));
+        userCounterService.apply(userId, deltas);
+        publishChange(userId);
+    }
+
+    /**
+     * Inserts the rows in one JDBC batch; callers own the transaction and set the user id.
+     */
+    protected BulkResult<T> saveBatchWithResults(List<T> entities) {
+        saveBatch(entities);
+        if (keepsCounters()) {
+            Map<Long, Map<String, Long>> deltasByUser = new HashMap<>();
+            entities.forEach(entity -> countRow(entity, 1,
+                    deltasByUser.computeIfAbsent(userIdColumn().apply(entity), userId -> new HashMap<>())));
+            deltasByUser.forEach(userCounterService::apply);
+        }
+        entities.stream().map(userIdColumn()).distinct().forEach(this::publishChange);
+        return BulkResult.of(entities.stream()
+                .map(entity -> BulkResult.Item.<T>builder()
+                        .id(idColumn().apply(entity))
+                        .status(BulkResult.CREATED)
+                        .data(entity)
+                        .build())
+                .toList());
+    }
+
+    /**
+     * Applies {@code changes(id)} to each of the user's rows in one JDBC batch; ids that are
+     * missing or foreign are reported as not found and left alone. Callers own the transaction.
+     */
+    protected BulkResult<T> updateOwnedBatch(List<Long> ids, Long userId, Function<Long, T> changes) {
+        List<T> before = lockOwnedRows(ids, userId);
+        Map<Long, T> updates = new LinkedHashMap<>();
+        before.forEach(row -> {
+            Long id = idColumn().apply(row);
+            updates.put(id, changes.apply(id));
+        });
+        Map<Long, T> updated = new HashMap<>();
+        if (!updates.isEmpty()) {
+            updateBatchById(updates.values());
+            boolean counted = updates.values().stream().anyMatch(this::touchesCounters);
+            Map<String, Long> deltas = new HashMap<>();
+            before.forEach(row -> {
+                Long id = idColumn().apply(row);
+                if (counted) {
+                    countRow(row, -1, deltas);
+                }
+                updated.put(id, overlay(row, updates.get(id)));
+                if (counted) {
+                    countRow(row, 1, deltas);
+                }
+            });
+            if (counted) {
+                userCounterService.apply(userId, deltas);
+            }
+            publishChange(userId);
+        }
+
+        return BulkResult.of(ids.stream()
+                .map(id -> updated.containsKey(id)
+                        ? BulkResult.Item.<T>builder().id(id).status(BulkResult.UPDATED).data(updated.get(id)).build()
+                        : BulkResult.Item.<T>builder().id(id).status(BulkResult.NOT_FOUND).build())
+                .toList());
+    }
+
+    @Transactional
+    public BulkResult<T> removeBatchByIdsAndUserId(List<Long> ids, Long userId) {
+        List<T> removed = selectOwnedRows(ids, userId);
+        Set<Long> owned = removed.stream().map(idColumn()).collect(Collectors.toSet());
+        if (!owned.isEmpty()) {
+            Map<String, Long> deltas = keepsCounters() ? removalDeltas(removed, userId) : Map.of();
+            remove(new LambdaQueryWrapper<T>()
+                    .in(idColumn(), owned)
+                    .eq(userIdColumn(), userId));
+            if (!deltas.isEmpty()) {
+                userCounterService.apply(userId, deltas);
+            }
+            publishChange(userId);
+        }
+
+        return BulkResult.of(ids.stream()
+                .map(id -> BulkResult.Item.<T>builder()
+                        .id(id)
+                        .status(owned.contains(id) ? BulkResult.DELETED : BulkResult.NOT_FOUND)
+                        .build())
+                .toList());
+    }
+
+    /**
+     * Writes the non-null fields of {@code changes} to the user's row and returns the row as
+     * updated. Callers must be transactional: a plain update reads the row back by primary key
+     * under the lock the update took, and a counted change locks the row before the update and
+     * lays the changes over it instead.
+     */
+    protected T updateOwned(T changes, Long id, Long userId) {
+        if (!touchesCounters(changes)) {
+            if (!update(changes, ownedRow(id, userId))) {
+                throw new ResourceNotFoundException(resourceName(), id);
+            }
+            publishChange(userId);
+            return getById(id);
+        }
+
+        List<T> before = lockOwnedRows(List.of(id), userId);
+        if (before.isEmpty()) {
+            throw new ResourceNotFoundException(resourceName(), id);
+        }
+        update(changes, ownedRow(id, userId));
+        Map<String, Long> deltas = new HashMap<>();
+        countRow(before.get(0), -1, deltas);
+        T updated = overlay(before.get(0), changes);
+        countRow(updated, 1, deltas);
+        userCounterService.apply(userId, deltas);
+        publishChange(userId);
+        return updated;
+    }
+
+    protected void publishChange(Long userId) {
+        publishEvent(new UserDataChangedEvent(userId, resourceName()));
+    }
+
+    protected void publishEvent(Object event) {
+        eventPublisher.publishEvent(event);
+    }
+
+    private boolean touchesCounters(T changes) {
+        return keepsCounters() && counterColumns().stream()
+                .map(column -> column.apply(changes))
+                .anyMatch(Objects::nonNull);
+    }
+
+    /**
+     * Copies the non-null columns of {@code changes} onto {@code row}, giving the row the
+     * update leaves behind without reading it back.
+     */
+    private T overlay(T row, T changes) {
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(getEntityClass());
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            Object value = tableInfo.getPropertyValue(changes, field.getProperty());
+            if (value != null) {
+                tableInfo.setPropertyValue(row, field.getProperty(), value);
+            }
+        }
+        return row;
+    }
+
+    private Map<String, Long> removalDeltas(List<T> removed, Long userId) {
+        Map<String, Long> deltas = new HashMap<>();
+        removed.forEach(row -> countRow(row, -1, deltas));
+        countCascade(removed, userId, deltas);
+        return deltas;
+    }
+
+    /**
+     * Returns the id and counted columns of the user's rows among the ids, locking those rows
+     * until commit. Missing and foreign ids are left out.
+     */
+    private List<T> selectOwnedRows(Collection<Long> ids, Long userId) {
+        List<SFunction<T, ?>> columns = new ArrayList<>();
+        columns.add(idColumn());
+        columns.add(userIdColumn());
+        if (keepsCounters()) {
+            columns.addAll(counterColumns());
+        }
+        return list(new LambdaQueryWrapper<T>()
+                .select(columns)
+                .in(idColumn(), ids)
+                .eq(userIdColumn(), userId)
+                .last("FOR UPDATE"));
+    }
+
+    /**
+     * Returns the user's full rows among the ids, locking them until commit.
+     */
+    private List<T> lockOwnedRows(Collection<Long> ids, Long userId) {
+        return list(new LambdaQueryWrapper<T>()
+                .in(idColumn(), ids)
+                .eq(userIdColumn(), userId)
+                .last("FOR UPDATE"));
+    }
+
+    private LambdaUpdateWrapper<T> ownedRow(Long id, Long userId) {
+        return new LambdaUpdateWrapper<T>()
+                .eq(idColumn(), id)
+                .eq(userIdColumn(), userId);
+    }
+}
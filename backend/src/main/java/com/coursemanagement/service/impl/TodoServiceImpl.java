@@ -1,18 +1,57 @@
 package com.coursemanagement.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import com.coursemanagement.exception.ResourceNotFoundException;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.coursemanagement.exception.BadRequestException;
 import com.coursemanagement.mapper.TodoMapper;
+import com.coursemanagement.model.dto.BulkResult;
+import com.coursemanagement.model.dto.CursorPage;
+import com.coursemanagement.model.dto.TodoBulkUpdateRequest;
 import com.coursemanagement.model.entity.Todo;
 import com.coursemanagement.service.TodoService;
+import com.coursemanagement.util.CounterKeys;
+import com.coursemanagement.util.KeysetPagination;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
-public class TodoServiceImpl extends ServiceImpl<TodoMapper, Todo> implements TodoService {
+public class TodoServiceImpl extends OwnedEntityServiceImpl<TodoMapper, Todo> implements TodoService {
+
+    @Override
+    protected SFunction<Todo, Long> idColumn() {
+        return Todo::getId;
+    }
+
+    @Override
+    protected SFunction<Todo, Long> userIdColumn() {
+        return Todo::getUserId;
+    }
+
+    @Override
+    protected String resourceName() {
+        return "Todo";
+    }
+
+    @Override
+    protected boolean keepsCounters() {
+        return true;
+    }
+
+    @Override
+    protected List<SFunction<Todo, ?>> counterColumns() {
+        return List.of(Todo::getStatus);
+    }
+
+    @Override
+    protected void countRow(Todo todo, long sign, Map<String, Long> deltas) {
+        String status = todo.getStatus() != null ? todo.getStatus() : "pending"; // column default
+        deltas.merge(CounterKeys.TODOS, sign, Long::sum);
+        deltas.merge(CounterKeys.todoStatus(status), sign, Long::sum);
+    }
 
     @Override
     public List<Todo> listByUserId(Long userId) {
@@ -21,6 +60,14 @@ public class TodoServiceImpl extends ServiceImpl<TodoMapper, Todo> implements To
                 .orderByDesc(Todo::getCreatedAt));
     }
 
+    @Override
+    public CursorPage<Todo> pageByUserId(Long userId, String status, String cursor, Integer limit) {
+        LambdaQueryWrapper<Todo> query = new LambdaQueryWrapper<Todo>()
+                .eq(Todo::getUserId, userId)
+                .eq(status != null, Todo::getStatus, status);
+        return KeysetPagination.page(this, query, Todo::getCreatedAt, Todo::getId, cursor, limit);
+    }
+
     @Override
     public List<Todo> listByUserIdAndStatus(Long userId, String status) {
         return list(new LambdaQueryWrapper<Todo>()
@@ -30,37 +77,46 @@ public class TodoServiceImpl extends ServiceImpl<TodoMapper, Todo> implements To
     }
 
     @Override
-    public Todo getByIdAndUserId(Long id, Long userId) {
-        Todo todo = getOne(new LambdaQueryWrapper<Todo>()
-                .eq(Todo::getId, id)
-                .eq(Todo::getUserId, userId));
-        if (todo == null) {
-            throw new ResourceNotFoundException("Todo not found with id: " + id);
-        }
-        return todo;
+    @Transactional
+    public Todo updateByIdAndUserId(Todo todo, Long userId) {
+        todo.setUserId(userId);
+        todo.setCreatedAt(null); // never rewritten, even if the client sent one
+        todo.setUpdatedAt(LocalDateTime.now());
+        return updateOwned(todo, todo.getId(), userId);
     }
 
     @Override
-    public void updateByIdAndUserId(Todo todo, Long userId) {
-        Todo existing = getByIdAndUserId(todo.getId(), userId);
-        todo.setUserId(existing.getUserId());
-        todo.setCreatedAt(existing.getCreatedAt());
+    @Transactional
+    public Todo updateStatus(Long id, String status, Long userId) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setUserId(userId);
+        todo.setStatus(status);
         todo.setUpdatedAt(LocalDateTime.now());
-        updateById(todo);
+        return updateOwned(todo, id, userId);
     }
 
     @Override
-    public void removeByIdAndUserId(Long id, Long userId) {
-        getByIdAndUserId(id, userId); // Verify ownership
-        removeById(id);
+    @Transactional
+    public BulkResult<Todo> createBatch(List<Todo> todos, Long userId) {
+        todos.forEach(todo -> todo.setUserId(userId));
+        return saveBatchWithResults(todos);
     }
 
     @Override
-    public Todo updateStatus(Long id, String status, Long userId) {
-        Todo todo = getByIdAndUserId(id, userId);
-        todo.setStatus(status);
-        todo.setUpdatedAt(LocalDateTime.now());
-        updateById(todo);
-        return todo;
+    @Transactional
+    public BulkResult<Todo> updateBatch(TodoBulkUpdateRequest request, Long userId) {
+        if (request.getStatus() == null && request.getCourseId() == null) {
+            throw new BadRequestException("Nothing to update");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return updateOwnedBatch(request.getIds(), userId, id -> {
+            Todo todo = new Todo();
+            todo.setId(id);
+            todo.setStatus(request.getStatus());
+            todo.setCourseId(request.getCourseId());
+            todo.setUpdatedAt(now);
+            return todo;
+        });
     }
 }
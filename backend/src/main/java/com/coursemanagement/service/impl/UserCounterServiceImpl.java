@@ -0,0 +1,110 @@
+package com.coursemanagement.service.impl;
+
+import com.coursemanagement.mapper.UserCounterMapper;
+import com.coursemanagement.model.entity.UserCounter;
+import com.coursemanagement.service.UserCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-user counts kept in {@code user_counters}, so reads are a primary key range scan
+ * instead of COUNT(*) over the source tables.
+ *
+ * Writers add signed deltas in their own transaction with a single upsert, which takes only
+ * the counter row locks and never reads first, so concurrent writers of one user serialize
+ * on the counter rows for the length of their commit and nothing more.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserCounterServiceImpl implements UserCounterService {
+
+    private final UserCounterMapper userCounterMapper;
+
+    @Override
+    public void apply(Long userId, Map<String, Long> deltas) {
+        Map<String, Long> nonZero = new TreeMap<>(); // sorted, so writers lock counter rows in the same order
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                nonZero.put(key, delta);
+            }
+        });
+        if (!nonZero.isEmpty()) {
+            userCounterMapper.addDeltas(userId, nonZero);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCounters(Long userId) {
+        Map<String, Long> counters = new TreeMap<>();
+        for (UserCounter counter : userCounterMapper.selectByUserId(userId)) {
+            if (counter.getCounterValue() != 0) {
+                counters.put(counter.getCounterKey(), counter.getCounterValue());
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * Locking the counter rows first makes writers that are mid-transaction finish before the
+     * source tables are read, and holds back new ones until the corrected values are committed.
+     */
+    @Override
+    @Transactional
+    public int reconcile(Long userId) {
+        Map<String, Long> stored = new HashMap<>();
+        for (UserCounter counter : userCounterMapper.selectByUserIdForUpdate(userId)) {
+            stored.put(counter.getCounterKey(), counter.getCounterValue());
+        }
+
+        Map<String, Long> corrections = new TreeMap<>();
+        for (UserCounter counter : userCounterMapper.selectActualByUserId(userId)) {
+            Long storedValue = stored.remove(counter.getCounterKey());
+            if (counter.getCounterValue() != (storedValue != null ? storedValue : 0L)) {
+                corrections.put(counter.getCounterKey(), counter.getCounterValue());
+            }
+        }
+        // Keys left over have no source rows any more
+        Set<String> stale = stored.keySet();
+        int drifted = corrections.size() + (int) stored.values().stream().filter(value -> value != 0).count();
+
+        if (!corrections.isEmpty()) {
+            userCounterMapper.setValues(userId, corrections);
+        }
+        if (!stale.isEmpty()) {
+            userCounterMapper.deleteKeys(userId, stale);
+        }
+
+        if (drifted > 0) {
+            log.warn("Repaired {} drifted counters for user {}", drifted, userId);
+        }
+        return drifted;
+    }
+
+    @Override
+    public void subtractAttachmentsOfNotes(Collection<Long> noteIds, Map<String, Long> deltas) {
+        if (!noteIds.isEmpty()) {
+            subtract(userCounterMapper.selectAttachmentCountersByNoteIds(noteIds), deltas);
+        }
+    }
+
+    @Override
+    public void subtractNotesInCourses(Long userId, Collection<Long> courseIds, Map<String, Long> deltas) {
+        if (!courseIds.isEmpty()) {
+            subtract(userCounterMapper.selectNoteCountersByCourseIds(userId, courseIds), deltas);
+        }
+    }
+
+    private static void subtract(List<UserCounter> counters, Map<String, Long> deltas) {
+        counters.forEach(counter -> deltas.merge(counter.getCounterKey(), -counter.getCounterValue(), Long::sum));
+    }
+}
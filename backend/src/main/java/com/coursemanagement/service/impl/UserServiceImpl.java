@@ -9,14 +9,21 @@ import com.coursemanagement.model.dto.LoginRequest;
 import com.coursemanagement.model.dto.RegisterRequest;
 import com.coursemanagement.model.entity.RefreshToken;
 import com.coursemanagement.model.entity.User;
+import com.coursemanagement.security.CustomUserDetails;
+import com.coursemanagement.security.CustomUserDetailsService;
 import com.coursemanagement.security.JwtTokenProvider;
+import com.coursemanagement.security.PasswordHashingService;
 import com.coursemanagement.service.UserService;
+import com.coursemanagement.util.HashUtils;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Service
@@ -25,8 +32,10 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
 
     private final UserMapper userMapper;
     private final RefreshTokenMapper refreshTokenMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final TransactionTemplate transactionTemplate;
     private final JwtTokenProvider jwtTokenProvider;
+    private final CustomUserDetailsService userDetailsService;
 
     @Value("${jwt.access-token-expiration}")
     private long accessTokenExpiration;
@@ -35,27 +44,30 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     private long refreshTokenExpiration;
 
     @Override
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
-        if (existsByEmail(request.getEmail())) {
-            throw new BadRequestException("Email already registered");
-        }
-
-        User user = new User();
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setName(request.getName());
-        user.setProvider("local");
-        user.setCreatedAt(LocalDateTime.now());
-        user.setUpdatedAt(LocalDateTime.now());
-
-        userMapper.insert(user);
-
-        return generateAuthResponse(user);
+        // Hash before the transaction starts so no pooled connection waits on BCrypt
+        String passwordHash = passwordHashingService.encode(request.getPassword());
+
+        return transactionTemplate.execute(status -> {
+            if (existsByEmail(request.getEmail())) {
+                throw new BadRequestException("Email already registered");
+            }
+
+            User user = new User();
+            user.setEmail(request.getEmail());
+            user.setPassword(passwordHash);
+            user.setName(request.getName());
+            user.setProvider("local");
+            user.setCreatedAt(LocalDateTime.now());
+            user.setUpdatedAt(LocalDateTime.now());
+
+            userMapper.insert(user);
+
+            return generateAuthResponse(user);
+        });
     }
 
     @Override
-    @Transactional
     public AuthResponse login(LoginRequest request) {
         User user = userMapper.selectByEmail(request.getEmail());
 
@@ -63,7 +75,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             throw new BadRequestException("Invalid email or password");
         }
 
-        if (user.getPassword() == null || !passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (user.getPassword() == null || !passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             throw new BadRequestException("Invalid email or password");
         }
 
@@ -73,26 +85,24 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     @Override
     @Transactional
     public AuthResponse refreshToken(String refreshToken) {
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        Claims claims = jwtTokenProvider.parseClaims(refreshToken);
+        if (claims == null || !jwtTokenProvider.isRefreshToken(claims)) {
             throw new BadRequestException("Invalid refresh token");
         }
 
-        // Validate token exists in database and is not revoked
-        RefreshToken storedToken = refreshTokenMapper.findValidToken(refreshToken);
-        if (storedToken == null) {
+        // Rotation: the conditional revoke both validates the stored token and claims it,
+        // so a token replayed concurrently can only be exchanged once
+        if (refreshTokenMapper.revokeIfValid(HashUtils.sha256(refreshToken)) == 0) {
             throw new BadRequestException("Refresh token has been revoked or expired");
         }
 
-        Long userId = jwtTokenProvider.getUserIdFromToken(refreshToken);
-        User user = userMapper.selectById(userId);
-
-        if (user == null) {
+        User user;
+        try {
+            user = ((CustomUserDetails) userDetailsService.loadUserById(jwtTokenProvider.getUserId(claims))).getUser();
+        } catch (UsernameNotFoundException e) {
             throw new BadRequestException("User not found");
         }
 
-        // Revoke old refresh token (rotation)
-        refreshTokenMapper.revokeToken(refreshToken);
-
         return generateAuthResponse(user);
     }
 
@@ -101,12 +111,13 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     public void logout(Long userId) {
         // Revoke all refresh tokens for the user
         refreshTokenMapper.revokeAllUserTokens(userId);
+        userDetailsService.revokeAccessTokens(userId);
     }
 
     @Override
     @Transactional
     public void revokeRefreshToken(String token) {
-        refreshTokenMapper.revokeToken(token);
+        refreshTokenMapper.revokeToken(HashUtils.sha256(token));
     }
 
     @Override
@@ -119,14 +130,34 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         return userMapper.selectByEmail(email) != null;
     }
 
+    @Override
+    public boolean updateById(User user) {
+        boolean updated = super.updateById(user);
+        if (user.getPassword() != null) {
+            userDetailsService.revokeAccessTokens(user.getId());
+        } else {
+            userDetailsService.invalidateUser(user.getId());
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        if (id instanceof Long userId) {
+            userDetailsService.revokeAccessTokens(userId);
+        }
+        return removed;
+    }
+
     private AuthResponse generateAuthResponse(User user) {
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail());
+        String accessToken = jwtTokenProvider.generateAccessToken(user);
         String refreshTokenValue = jwtTokenProvider.generateRefreshToken(user.getId(), user.getEmail());
 
         // Store refresh token in database
         RefreshToken refreshToken = new RefreshToken();
         refreshToken.setUserId(user.getId());
-        refreshToken.setToken(refreshTokenValue);
+        refreshToken.setTokenHash(HashUtils.sha256(refreshTokenValue));
         refreshToken.setExpiresAt(LocalDateTime.now().plusSeconds(refreshTokenExpiration / 1000));
         refreshToken.setRevoked(false);
         refreshToken.setCreatedAt(LocalDateTime.now());
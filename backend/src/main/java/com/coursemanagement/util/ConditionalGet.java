@@ -0,0 +1,43 @@
+package com.coursemanagement.util;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for responses versioned by an ETag that is known before the body is loaded.
+ */
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Answers 304 Not Modified when the request's If-None-Match matches the ETag, without
+     * calling {@code body}; returns null in that case, which tells Spring MVC the response is
+     * complete. Otherwise loads the body and returns it with the ETag. The ETag must be taken
+     * before the body is read, so a concurrent write can only make the body newer than its tag.
+     * Both answers vary by the credentials, since the list depends on who is asking.
+     */
+    public static <T> ResponseEntity<T> ifNoneMatch(WebRequest request, String etag, Supplier<T> body) {
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.COOKIE + ", " + HttpHeaders.AUTHORIZATION);
+            }
+        }
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                // Replaces the no-store default of Spring Security, so browsers keep and revalidate
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(body.get());
+    }
+}
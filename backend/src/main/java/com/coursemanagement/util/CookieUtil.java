@@ -11,6 +11,7 @@ public class CookieUtil {
 
     public static final String ACCESS_TOKEN_COOKIE = "access_token";
     public static final String REFRESH_TOKEN_COOKIE = "refresh_token";
+    public static final String OAUTH2_AUTHORIZATION_REQUEST_COOKIE = "oauth2_auth_request";
 
     @Value("${jwt.access-token-expiration}")
     private long accessTokenExpiration;
@@ -37,6 +38,19 @@ public class CookieUtil {
         clearCookie(response, REFRESH_TOKEN_COOKIE);
     }
 
+    public void addOAuth2AuthorizationRequestCookie(HttpServletResponse response, String value, int maxAge) {
+        // Lax is enough: the provider sends the user back with a top-level GET redirect
+        addCookie(response, OAUTH2_AUTHORIZATION_REQUEST_COOKIE, value, maxAge, "Lax");
+    }
+
+    public void clearOAuth2AuthorizationRequestCookie(HttpServletResponse response) {
+        addCookie(response, OAUTH2_AUTHORIZATION_REQUEST_COOKIE, "", 0, "Lax");
+    }
+
+    public String getOAuth2AuthorizationRequestFromCookie(HttpServletRequest request) {
+        return getCookieValue(request, OAUTH2_AUTHORIZATION_REQUEST_COOKIE);
+    }
+
     public String getAccessTokenFromCookie(HttpServletRequest request) {
         return getCookieValue(request, ACCESS_TOKEN_COOKIE);
     }
@@ -46,12 +60,16 @@ public class CookieUtil {
     }
 
     private void addCookie(HttpServletResponse response, String name, String value, int maxAge) {
+        addCookie(response, name, value, maxAge, "None");
+    }
+
+    private void addCookie(HttpServletResponse response, String name, String value, int maxAge, String sameSite) {
         Cookie cookie = new Cookie(name, value);
         cookie.setHttpOnly(true);
         cookie.setSecure(secureCookie);
         cookie.setPath("/");
         cookie.setMaxAge(maxAge);
-        cookie.setAttribute("SameSite", "None");
+        cookie.setAttribute("SameSite", sameSite);
 
         if (cookieDomain != null && !cookieDomain.isEmpty()) {
             cookie.setDomain(cookieDomain);
@@ -0,0 +1,33 @@
+package com.coursemanagement.util;
+
+/**
+ * Keys of the per-user counters in {@code user_counters}.
+ */
+public final class CounterKeys {
+
+    public static final String COURSES = "courses";
+    public static final String TODOS = "todos";
+    public static final String NOTES = "notes";
+    public static final String CURRICULUMS = "curriculums";
+    public static final String ATTACHMENTS = "attachments";
+    public static final String STORAGE_BYTES = "storage.bytes";
+
+    private CounterKeys() {
+    }
+
+    public static String courseStatus(String status) {
+        return "courses.status." + status;
+    }
+
+    public static String todoStatus(String status) {
+        return "todos.status." + status;
+    }
+
+    public static String notesInCourse(Long courseId) {
+        return "notes.course." + courseId;
+    }
+
+    public static String attachmentsOnNote(Long noteId) {
+        return "attachments.note." + noteId;
+    }
+}
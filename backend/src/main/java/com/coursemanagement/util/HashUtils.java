@@ -0,0 +1,27 @@
+package com.coursemanagement.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class HashUtils {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private HashUtils() {
+    }
+
+    public static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to ship SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static String sha256Hex(String value) {
+        return HEX.formatHex(sha256(value));
+    }
+}
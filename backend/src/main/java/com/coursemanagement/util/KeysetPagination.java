@@ -0,0 +1,89 @@
+package com.coursemanagement.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.coursemanagement.exception.BadRequestException;
+import com.coursemanagement.model.dto.CursorPage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Newest-first keyset pagination on {@code (created_at, id)}.
+ *
+ * The cursor is the position of the last row returned, so each page is a bounded range scan
+ * regardless of how deep the client has paged. Clients must treat it as opaque.
+ */
+public final class KeysetPagination {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final char SEPARATOR = '|';
+
+    private KeysetPagination() {
+    }
+
+    public static <T> CursorPage<T> page(IService<T> service, LambdaQueryWrapper<T> query,
+            SFunction<T, LocalDateTime> createdAt, SFunction<T, Long> id,
+            String cursor, Integer limit) {
+        int pageSize = resolveLimit(limit);
+
+        if (cursor != null && !cursor.isEmpty()) {
+            Position after = decode(cursor);
+            query.and(w -> w.lt(createdAt, after.createdAt())
+                    .or(o -> o.eq(createdAt, after.createdAt()).lt(id, after.id())));
+        }
+        // One extra row tells whether another page exists without a COUNT query
+        query.orderByDesc(createdAt, id).last("LIMIT " + (pageSize + 1));
+
+        List<T> rows = service.list(query);
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            T last = items.get(items.size() - 1);
+            nextCursor = encode(createdAt.apply(last), id.apply(last));
+        }
+
+        return CursorPage.<T>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    public static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    private static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new Position(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private record Position(LocalDateTime createdAt, Long id) {
+    }
+}
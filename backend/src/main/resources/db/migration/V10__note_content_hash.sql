@@ -0,0 +1,12 @@
+-- SHA-256 of the note content (hex of its UTF-8 bytes), the version clients patch against.
+-- Maintained by NoteServiceImpl on every content write. Encoded rows are left NULL here and
+-- hashed when they are next read or written.
+
+ALTER TABLE notes
+    ADD COLUMN content_hash CHAR(64) NULL AFTER content_ref;
+
+UPDATE notes
+SET content_hash = SHA2(CONVERT(content USING utf8mb4), 256)
+WHERE content IS NOT NULL
+  AND (content_data IS NULL OR LENGTH(content_data) = 0)
+  AND (content_ref IS NULL OR content_ref = '');
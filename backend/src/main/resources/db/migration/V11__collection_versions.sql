@@ -0,0 +1,10 @@
+-- Per-user collection versions behind the list ETags, bumped in the same transaction as
+-- each write so every node sees the same version. A missing row is version 0.
+
+CREATE TABLE collection_versions (
+    user_id BIGINT NOT NULL,
+    collection VARCHAR(50) NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (user_id, collection),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
@@ -0,0 +1,10 @@
+-- Log of note writes, appended in the writing transaction. The search index on every node
+-- replays it in seq order, so a write through one node becomes searchable on all of them.
+-- No foreign key: the entries of deleted notes are what removes them from the indexes.
+
+CREATE TABLE note_index_changes (
+    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+    note_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_note_index_changes_created (created_at)
+);
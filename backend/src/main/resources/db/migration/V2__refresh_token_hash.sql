@@ -0,0 +1,13 @@
+-- Refresh tokens are stored as SHA-256 digests instead of the raw JWT. Existing rows keep
+-- working: their digest is computed from the stored token before the column is dropped.
+
+ALTER TABLE refresh_tokens ADD COLUMN token_hash BINARY(32) NULL AFTER user_id;
+
+UPDATE refresh_tokens SET token_hash = UNHEX(SHA2(token, 256));
+
+ALTER TABLE refresh_tokens
+    DROP INDEX idx_refresh_tokens_token,
+    DROP INDEX uk_token,
+    DROP COLUMN token,
+    MODIFY token_hash BINARY(32) NOT NULL,
+    ADD UNIQUE KEY uk_token_hash (token_hash);
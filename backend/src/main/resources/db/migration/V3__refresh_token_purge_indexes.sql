@@ -0,0 +1,4 @@
+-- Indexes for the background purge of expired and revoked refresh tokens.
+
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
+CREATE INDEX idx_refresh_tokens_revoked ON refresh_tokens(revoked, created_at);
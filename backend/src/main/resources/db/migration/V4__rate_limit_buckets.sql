@@ -0,0 +1,8 @@
+-- Rate limit buckets shared across nodes (app.rate-limit.backend: jdbc)
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    id VARCHAR(255) PRIMARY KEY,
+    state VARBINARY(4096) NOT NULL,
+    version BIGINT NOT NULL,
+    expires_at BIGINT NOT NULL,
+    INDEX idx_rate_limit_buckets_expires_at (expires_at)
+);
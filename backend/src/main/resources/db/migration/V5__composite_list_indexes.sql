@@ -0,0 +1,33 @@
+-- Composite indexes matching the list queries: filter on user_id (plus status/course_id),
+-- newest first. InnoDB appends the primary key, so (created_at, id) keyset pages are
+-- served straight from the index without a filesort. The single-column user_id indexes
+-- become redundant prefixes and are dropped in the same statement.
+
+ALTER TABLE courses
+    ADD INDEX idx_courses_user_created (user_id, created_at),
+    DROP INDEX idx_courses_user_id;
+
+ALTER TABLE notes
+    ADD INDEX idx_notes_user_created (user_id, created_at),
+    ADD INDEX idx_notes_user_course_created (user_id, course_id, created_at),
+    DROP INDEX idx_notes_user_id;
+
+ALTER TABLE todos
+    ADD INDEX idx_todos_user_created (user_id, created_at),
+    ADD INDEX idx_todos_user_status_created (user_id, status, created_at),
+    DROP INDEX idx_todos_user_id;
+
+ALTER TABLE curriculums
+    ADD INDEX idx_curriculums_user_created (user_id, created_at),
+    DROP INDEX idx_curriculums_user_id;
+
+-- uk_user_category (user_id, name) already serves the name-ordered category list
+ALTER TABLE categories
+    DROP INDEX idx_categories_user_id;
+
+ALTER TABLE attachments
+    ADD INDEX idx_attachments_note_created (note_id, created_at);
+
+ALTER TABLE curriculum_courses
+    ADD INDEX idx_curriculum_courses_order (curriculum_id, order_index),
+    DROP INDEX idx_curriculum_courses_curriculum_id;
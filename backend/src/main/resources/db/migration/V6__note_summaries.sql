@@ -0,0 +1,13 @@
+-- Denormalized summary columns so note lists never read the content TEXT column.
+-- Kept in sync by NoteServiceImpl on every write; existing rows are backfilled here.
+
+ALTER TABLE notes
+    ADD COLUMN excerpt VARCHAR(160) NULL AFTER content,
+    ADD COLUMN content_length INT NOT NULL DEFAULT 0 AFTER excerpt;
+
+-- content_length counts UTF-16 code units like String.length() and the patch positions,
+-- so characters outside the BMP count twice
+UPDATE notes
+SET excerpt = LEFT(TRIM(REGEXP_REPLACE(content, '[[:space:]]+', ' ')), 160),
+    content_length = LENGTH(CONVERT(content USING utf16)) DIV 2
+WHERE content IS NOT NULL;
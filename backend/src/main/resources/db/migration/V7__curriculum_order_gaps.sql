@@ -0,0 +1,9 @@
+-- Respace curriculum course order keys 1024 apart (CurriculumServiceImpl.ORDER_GAP) so a
+-- move can pick a key between its neighbors. Also removes duplicates left by removals.
+
+UPDATE curriculum_courses cc
+JOIN (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY curriculum_id ORDER BY order_index, id) - 1 AS position
+    FROM curriculum_courses
+) ranked ON ranked.id = cc.id
+SET cc.order_index = ranked.position * 1024;
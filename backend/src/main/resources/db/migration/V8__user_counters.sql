@@ -0,0 +1,38 @@
+-- Pre-aggregated per-user counts, maintained by delta upserts in the same transaction as
+-- each write and repaired by UserCounterReconcileJob. Keys are listed in CounterKeys.
+
+CREATE TABLE user_counters (
+    user_id BIGINT NOT NULL,
+    counter_key VARCHAR(100) NOT NULL,
+    counter_value BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, counter_key),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+INSERT INTO user_counters (user_id, counter_key, counter_value)
+SELECT user_id, 'courses', COUNT(*) FROM courses GROUP BY user_id
+UNION ALL
+SELECT user_id, CONCAT('courses.status.', status), COUNT(*) FROM courses
+WHERE status IS NOT NULL GROUP BY user_id, status
+UNION ALL
+SELECT user_id, 'todos', COUNT(*) FROM todos GROUP BY user_id
+UNION ALL
+SELECT user_id, CONCAT('todos.status.', status), COUNT(*) FROM todos
+WHERE status IS NOT NULL GROUP BY user_id, status
+UNION ALL
+SELECT user_id, 'notes', COUNT(*) FROM notes GROUP BY user_id
+UNION ALL
+SELECT user_id, CONCAT('notes.course.', course_id), COUNT(*) FROM notes
+WHERE course_id IS NOT NULL GROUP BY user_id, course_id
+UNION ALL
+SELECT user_id, 'curriculums', COUNT(*) FROM curriculums GROUP BY user_id
+UNION ALL
+SELECT n.user_id, 'attachments', COUNT(*) FROM attachments a
+JOIN notes n ON n.id = a.note_id GROUP BY n.user_id
+UNION ALL
+SELECT n.user_id, 'storage.bytes', SUM(a.file_size) FROM attachments a
+JOIN notes n ON n.id = a.note_id GROUP BY n.user_id
+UNION ALL
+SELECT n.user_id, CONCAT('attachments.note.', a.note_id), COUNT(*) FROM attachments a
+JOIN notes n ON n.id = a.note_id GROUP BY n.user_id, a.note_id;
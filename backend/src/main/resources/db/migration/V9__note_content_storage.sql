@@ -0,0 +1,8 @@
+-- Encoded note content. When content_data is non-empty it holds the content as a format tag
+-- byte followed by the (possibly compressed) UTF-8 bytes; when content_ref is non-empty the
+-- same encoding lives in the content blob store under that key. Otherwise content is plain.
+-- Existing rows stay plain until they are next written. See NoteContentStore.
+
+ALTER TABLE notes
+    ADD COLUMN content_data MEDIUMBLOB NULL AFTER content,
+    ADD COLUMN content_ref VARCHAR(64) NULL AFTER content_data;
@@ -0,0 +1,184 @@
+package com.coursemanagement.content;
+
+import com.coursemanagement.model.entity.Note;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoteContentStoreTest {
+
+    @TempDir
+    Path blobDir;
+
+    private EmbeddedDatabase database;
+    private TransactionTemplate transactionTemplate;
+    private ContentBlobStore blobStore;
+    private NoteContentStore store;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        blobStore = new FileSystemContentBlobStore(blobDir);
+        store = new NoteContentStore(blobStore);
+        thresholds(DataSize.ofKilobytes(4), DataSize.ofKilobytes(256));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void smallContentStaysPlain() {
+        Note note = encoded("short note");
+
+        assertEquals("short note", note.getContent());
+        assertArrayEquals(new byte[0], note.getContentData());
+        assertEquals("", note.getContentRef());
+        assertEquals("short note", decoded(note).getContent());
+    }
+
+    @Test
+    void nullContentIsLeftAlone() {
+        Note note = encoded(null);
+
+        assertNull(note.getContent());
+        assertNull(note.getContentData());
+        assertNull(note.getContentRef());
+    }
+
+    @Test
+    void contentFromTheThresholdIsDeflated() {
+        String content = "Lecture notes with \uD83D\uDE00 and accents \u00E9 ".repeat(200);
+        Note note = encoded(content);
+
+        assertEquals("", note.getContent());
+        assertEquals(NoteContentStore.FORMAT_DEFLATE, note.getContentData()[0]);
+        assertTrue(note.getContentData().length < content.length());
+        assertEquals("", note.getContentRef());
+        assertEquals(content, decoded(note).getContent());
+    }
+
+    @Test
+    void incompressibleContentStaysPlain() {
+        // Too short for deflate to win anything, but past the lowered threshold
+        thresholds(DataSize.ofBytes(16), DataSize.ofKilobytes(256));
+        String content = randomAscii(40);
+        Note note = encoded(content);
+
+        assertEquals(content, note.getContent());
+        assertArrayEquals(new byte[0], note.getContentData());
+        assertEquals(content, decoded(note).getContent());
+    }
+
+    @Test
+    void uncompressedContentPastTheTextColumnMovesToContentData() {
+        thresholds(DataSize.ofMegabytes(1), DataSize.ofMegabytes(1));
+
+        String fits = "a".repeat(65_534);
+        assertEquals(fits, encoded(fits).getContent());
+
+        String tooLong = "a".repeat(65_535);
+        Note note = encoded(tooLong);
+        assertEquals("", note.getContent());
+        assertEquals(NoteContentStore.FORMAT_RAW, note.getContentData()[0]);
+        assertEquals(65_536, note.getContentData().length);
+        assertEquals(tooLong, decoded(note).getContent());
+    }
+
+    @Test
+    void largeEncodedContentSpillsToABlob() {
+        thresholds(DataSize.ofKilobytes(4), DataSize.ofKilobytes(8));
+        String content = randomAscii(20_000);
+        Note note = transactionTemplate.execute(status -> encoded(content));
+
+        assertEquals("", note.getContent());
+        assertArrayEquals(new byte[0], note.getContentData());
+        assertTrue(note.getContentRef().length() > 0);
+        assertEquals(NoteContentStore.FORMAT_DEFLATE, blobStore.get(note.getContentRef())[0]);
+        assertEquals(content, decoded(note).getContent());
+    }
+
+    @Test
+    void blobIsDeletedWhenTheTransactionRollsBack() {
+        thresholds(DataSize.ofKilobytes(4), DataSize.ofKilobytes(8));
+        Note note = transactionTemplate.execute(status -> {
+            Note written = encoded(randomAscii(20_000));
+            assertTrue(blobStore.get(written.getContentRef()).length > 0);
+            status.setRollbackOnly();
+            return written;
+        });
+
+        assertThrows(UncheckedIOException.class, () -> blobStore.get(note.getContentRef()));
+    }
+
+    @Test
+    void replacedBlobIsDeletedOnlyAfterCommit() {
+        thresholds(DataSize.ofKilobytes(4), DataSize.ofKilobytes(8));
+        String oldKey = transactionTemplate.execute(status -> encoded(randomAscii(20_000)).getContentRef());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            store.releaseAfterCommit(oldKey);
+            status.setRollbackOnly();
+        });
+        assertTrue(blobStore.get(oldKey).length > 0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            store.releaseAfterCommit(oldKey);
+            assertTrue(blobStore.get(oldKey).length > 0);
+        });
+        assertThrows(UncheckedIOException.class, () -> blobStore.get(oldKey));
+    }
+
+    private void thresholds(DataSize compress, DataSize spill) {
+        ReflectionTestUtils.setField(store, "compressThreshold", compress);
+        ReflectionTestUtils.setField(store, "spillThreshold", spill);
+    }
+
+    private Note encoded(String content) {
+        Note note = new Note();
+        note.setContent(content);
+        store.encode(note);
+        return note;
+    }
+
+    private Note decoded(Note stored) {
+        Note note = new Note();
+        note.setContent(stored.getContent());
+        note.setContentData(stored.getContentData());
+        note.setContentRef(stored.getContentRef());
+        store.decode(note);
+        return note;
+    }
+
+    private static String randomAscii(int length) {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) (' ' + random.nextInt(95)));
+        }
+        return text.toString();
+    }
+}
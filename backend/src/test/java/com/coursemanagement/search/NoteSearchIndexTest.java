@@ -0,0 +1,162 @@
+package com.coursemanagement.search;
+
+import com.coursemanagement.content.FileSystemContentBlobStore;
+import com.coursemanagement.content.NoteContentStore;
+import com.coursemanagement.event.NoteChangedEvent;
+import com.coursemanagement.mapper.NoteIndexChangeMapper;
+import com.coursemanagement.mapper.NoteMapper;
+import com.coursemanagement.model.dto.NoteSearchHit;
+import com.coursemanagement.model.entity.Note;
+import com.coursemanagement.support.MybatisTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoteSearchIndexTest {
+
+    private static final Long USER = 1L;
+
+    @TempDir
+    Path tempDir;
+
+    private MybatisTestDatabase database;
+    private NoteMapper noteMapper;
+    private NoteIndexChangeMapper changeMapper;
+    private final List<NoteSearchIndex> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        database = new MybatisTestDatabase("""
+                CREATE TABLE notes (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    user_id BIGINT NOT NULL,
+                    course_id BIGINT,
+                    title VARCHAR(255) NOT NULL,
+                    content TEXT,
+                    content_data VARBINARY(65536),
+                    content_ref VARCHAR(128),
+                    content_hash CHAR(64),
+                    excerpt VARCHAR(700),
+                    content_length INT,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )""", """
+                CREATE TABLE note_index_changes (
+                    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    note_id BIGINT NOT NULL,
+                    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+                )""");
+        noteMapper = database.mapper(NoteMapper.class);
+        changeMapper = database.mapper(NoteIndexChangeMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (NoteSearchIndex node : nodes) {
+            node.close();
+        }
+        database.close();
+    }
+
+    @Test
+    void writesThroughOneNodeBecomeSearchableOnTheOther() throws Exception {
+        NoteSearchIndex nodeA = startNode("a");
+        NoteSearchIndex nodeB = startNode("b");
+
+        Note note = write(nodeA, "Thermodynamics", "entropy always increases");
+        nodeA.refresh();
+        assertEquals(List.of(note.getId()), ids(nodeA.search(USER, "entropy", null, 10)));
+
+        nodeB.refresh();
+        assertEquals(List.of(note.getId()), ids(nodeB.search(USER, "entropy", null, 10)));
+
+        noteMapper.deleteById(note.getId());
+        nodeA.logChange(NoteChangedEvent.deleted(note.getId()));
+        nodeB.refresh();
+        assertTrue(nodeB.search(USER, "entropy", null, 10).isEmpty());
+    }
+
+    @Test
+    void skippedSeqIsPickedUpOnceItCommits() throws Exception {
+        NoteSearchIndex node = startNode("a");
+        Note late = insertNote("Late", "committed after a newer change");
+        Note early = insertNote("Early", "committed first");
+
+        // The late transaction took seq 1 but commits after seq 2 has been replayed
+        database.jdbcTemplate().update("INSERT INTO note_index_changes (seq, note_id) VALUES (2, ?)", early.getId());
+        node.refresh();
+        assertEquals(List.of(early.getId()), ids(node.search(USER, "committed", null, 10)));
+
+        database.jdbcTemplate().update("INSERT INTO note_index_changes (seq, note_id) VALUES (1, ?)", late.getId());
+        node.refresh();
+        assertEquals(2, node.search(USER, "committed", null, 10).size());
+    }
+
+    @Test
+    void restartedNodeReplaysFromItsLastCommit() throws Exception {
+        NoteSearchIndex node = startNode("a");
+        Note first = write(node, "First", "photosynthesis");
+        node.refresh();
+        node.commit();
+        node.close();
+        nodes.remove(node);
+
+        Note second = write(startNode("b"), "Second", "photosynthesis again");
+        NoteSearchIndex restarted = startNode("a");
+        restarted.refresh();
+
+        assertEquals(2, restarted.search(USER, "photosynthesis", null, 10).size());
+        assertTrue(ids(restarted.search(USER, "again", null, 10)).contains(second.getId()));
+        assertTrue(ids(restarted.search(USER, "photosynthesis", null, 10)).contains(first.getId()));
+    }
+
+    private NoteSearchIndex startNode(String name) throws Exception {
+        NoteSearchIndex node = new NoteSearchIndex(noteMapper, changeMapper,
+                new NoteContentStore(new FileSystemContentBlobStore(tempDir.resolve("blobs"))));
+        ReflectionTestUtils.setField(node, "indexDir", tempDir.resolve("index-" + name));
+        ReflectionTestUtils.setField(node, "gapTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(node, "changeRetention", Duration.ofDays(7));
+        node.open();
+        node.rebuildIfNeeded();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (ReflectionTestUtils.getField(node, "replayedSeq") == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Writes the note the way the note service does: row, log entry, then the local update.
+     */
+    private Note write(NoteSearchIndex node, String title, String content) {
+        Note note = insertNote(title, content);
+        node.logChange(NoteChangedEvent.written(note));
+        node.onNoteChanged(NoteChangedEvent.written(note));
+        return note;
+    }
+
+    private Note insertNote(String title, String content) {
+        Note note = new Note();
+        note.setUserId(USER);
+        note.setTitle(title);
+        note.setContent(content);
+        noteMapper.insert(note);
+        return note;
+    }
+
+    private static List<Long> ids(List<NoteSearchHit> hits) {
+        return hits.stream().map(NoteSearchHit::getId).toList();
+    }
+}
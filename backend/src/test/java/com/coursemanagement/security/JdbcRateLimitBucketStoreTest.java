@@ -0,0 +1,117 @@
+package com.coursemanagement.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcRateLimitBucketStoreTest {
+
+    private static final BucketConfiguration FIVE_PER_MINUTE = BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder()
+                    .capacity(5)
+                    .refillIntervally(5, Duration.ofMinutes(1))
+                    .build())
+            .build();
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("""
+                CREATE TABLE rate_limit_buckets (
+                    id VARCHAR(255) PRIMARY KEY,
+                    state VARBINARY(4096) NOT NULL,
+                    version BIGINT NOT NULL,
+                    expires_at BIGINT NOT NULL
+                )""");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void limitIsSharedBetweenNodes() {
+        RateLimitBucketStore nodeA = new JdbcRateLimitBucketStore(jdbcTemplate, Duration.ofMinutes(5));
+        RateLimitBucketStore nodeB = new JdbcRateLimitBucketStore(jdbcTemplate, Duration.ofMinutes(5));
+
+        Bucket onA = nodeA.resolve("login:10.0.0.1", () -> FIVE_PER_MINUTE);
+        Bucket onB = nodeB.resolve("login:10.0.0.1", () -> FIVE_PER_MINUTE);
+
+        assertTrue(onA.tryConsume(3));
+        assertTrue(onB.tryConsume(2));
+        assertFalse(onA.tryConsume(1));
+        assertFalse(onB.tryConsume(1));
+    }
+
+    @Test
+    void keysAreIndependent() {
+        RateLimitBucketStore store = new JdbcRateLimitBucketStore(jdbcTemplate, Duration.ofMinutes(5));
+
+        assertTrue(store.resolve("login:10.0.0.1", () -> FIVE_PER_MINUTE).tryConsume(5));
+        assertTrue(store.resolve("login:10.0.0.2", () -> FIVE_PER_MINUTE).tryConsume(5));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rate_limit_buckets", Integer.class));
+    }
+
+    @Test
+    void leftoverPlaceholderStartsAFullBucket() {
+        jdbcTemplate.update("INSERT INTO rate_limit_buckets (id, state, version, expires_at) VALUES (?, X'', 0, 0)",
+                "login:10.0.0.3");
+        RateLimitBucketStore store = new JdbcRateLimitBucketStore(jdbcTemplate, Duration.ofMinutes(5));
+
+        assertTrue(store.resolve("login:10.0.0.3", () -> FIVE_PER_MINUTE).tryConsume(5));
+        assertTrue(jdbcTemplate.queryForObject("SELECT expires_at FROM rate_limit_buckets WHERE id = ?",
+                Long.class, "login:10.0.0.3") > System.currentTimeMillis());
+    }
+
+    @Test
+    void concurrentConsumersNeverExceedCapacity() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                // Each attempt uses its own store to mimic independent nodes racing on one row
+                attempts.add(() -> new JdbcRateLimitBucketStore(jdbcTemplate, Duration.ofMinutes(5))
+                        .resolve("refresh:10.0.0.9", () -> FIVE_PER_MINUTE)
+                        .tryConsume(1));
+            }
+
+            int granted = 0;
+            for (Future<Boolean> result : executor.invokeAll(attempts)) {
+                if (result.get()) {
+                    granted++;
+                }
+            }
+            assertEquals(5, granted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
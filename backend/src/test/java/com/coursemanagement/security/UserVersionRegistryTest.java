@@ -0,0 +1,50 @@
+package com.coursemanagement.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserVersionRegistryTest {
+
+    private UserVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new UserVersionRegistry();
+        ReflectionTestUtils.setField(registry, "accessTokenExpiration", 900_000L);
+        registry.init();
+    }
+
+    @Test
+    void versionsNeverRepeat() {
+        long previous = registry.currentVersion();
+        for (int i = 0; i < 10_000; i++) {
+            long next = registry.currentVersion();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void bumpRejectsEveryEarlierTokenOnly() {
+        long issuedBefore = registry.currentVersion();
+        registry.bump(1L);
+        long issuedAfter = registry.currentVersion();
+
+        assertFalse(registry.isCurrent(1L, issuedBefore));
+        assertTrue(registry.isCurrent(1L, issuedAfter));
+        assertTrue(registry.isCurrent(2L, issuedBefore));
+    }
+
+    @Test
+    void tokenFromTheSameMillisecondAsTheBumpIsRejected() {
+        // A version stamped with the wall clock by another path in the same millisecond
+        long sameMillisecond = System.currentTimeMillis();
+        registry.bump(1L);
+
+        assertFalse(registry.isCurrent(1L, sameMillisecond));
+    }
+}
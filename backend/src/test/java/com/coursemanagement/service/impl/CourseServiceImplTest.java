@@ -0,0 +1,195 @@
+package com.coursemanagement.service.impl;
+
+import com.coursemanagement.event.NoteChangedEvent;
+import com.coursemanagement.event.UserDataChangedEvent;
+import com.coursemanagement.exception.BadRequestException;
+import com.coursemanagement.mapper.CourseMapper;
+import com.coursemanagement.mapper.NoteMapper;
+import com.coursemanagement.model.dto.BulkResult;
+import com.coursemanagement.model.dto.CourseBulkUpdateRequest;
+import com.coursemanagement.model.entity.Course;
+import com.coursemanagement.support.MybatisTestDatabase;
+import com.coursemanagement.support.RecordingUserCounterService;
+import com.coursemanagement.util.CounterKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseServiceImplTest {
+
+    private static final Long OWNER = 1L;
+    private static final Long STRANGER = 2L;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 2, 1, 8, 0);
+
+    private MybatisTestDatabase database;
+    private CourseServiceImpl service;
+    private final List<Object> events = new ArrayList<>();
+    private final RecordingUserCounterService counters = new RecordingUserCounterService();
+
+    @BeforeEach
+    void setUp() {
+        database = new MybatisTestDatabase("""
+                CREATE TABLE courses (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    user_id BIGINT NOT NULL,
+                    title VARCHAR(255) NOT NULL,
+                    description TEXT,
+                    category VARCHAR(100),
+                    status VARCHAR(50) DEFAULT 'not_started',
+                    progress INT DEFAULT 0,
+                    start_date DATE,
+                    end_date DATE,
+                    cover_url VARCHAR(500),
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )""", """
+                CREATE TABLE notes (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    user_id BIGINT NOT NULL,
+                    course_id BIGINT,
+                    title VARCHAR(255) NOT NULL,
+                    FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE SET NULL
+                )""");
+        service = new CourseServiceImpl(database.mapper(NoteMapper.class));
+        ReflectionTestUtils.setField(service, "baseMapper", database.mapper(CourseMapper.class));
+        service.setApplicationEventPublisher(events::add);
+        service.setUserCounterService(counters);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void bulkProgressDerivesTheStatusAndReturnsTheRows() {
+        Long fresh = insert(OWNER, "Mechanics", "not_started", 0);
+        Long foreign = insert(STRANGER, "Optics", "in_progress", 30);
+        Long started = insert(OWNER, "Waves", "in_progress", 40);
+        CourseBulkUpdateRequest request = new CourseBulkUpdateRequest();
+        request.setIds(List.of(fresh, foreign, started));
+        request.setProgress(100);
+
+        BulkResult<Course> result = inTransaction(() -> service.updateBatch(request, OWNER));
+
+        assertEquals(List.of(BulkResult.UPDATED, BulkResult.NOT_FOUND, BulkResult.UPDATED),
+                result.getResults().stream().map(BulkResult.Item::getStatus).toList());
+        Course updated = result.getResults().get(2).getData();
+        assertEquals("Waves", updated.getTitle());
+        assertEquals("completed", updated.getStatus());
+        assertEquals(100, updated.getProgress());
+        assertEquals(CREATED, updated.getCreatedAt());
+        assertEquals("completed", status(fresh));
+        assertEquals("in_progress", status(foreign));
+        assertEquals(List.of(Map.of(
+                CounterKeys.COURSES, 0L,
+                CounterKeys.courseStatus("not_started"), -1L,
+                CounterKeys.courseStatus("in_progress"), -1L,
+                CounterKeys.courseStatus("completed"), 2L)), counters.applied());
+    }
+
+    @Test
+    void bulkStatusLeavesTheProgressAlone() {
+        Long id = insert(OWNER, "Mechanics", "in_progress", 40);
+        CourseBulkUpdateRequest request = new CourseBulkUpdateRequest();
+        request.setIds(List.of(id));
+        request.setStatus("completed");
+
+        Course updated = inTransaction(() -> service.updateBatch(request, OWNER)).getResults().get(0).getData();
+
+        assertEquals("completed", updated.getStatus());
+        assertEquals(40, updated.getProgress());
+    }
+
+    @Test
+    void bulkUpdateWithoutChangesIsRejected() {
+        CourseBulkUpdateRequest request = new CourseBulkUpdateRequest();
+        request.setIds(List.of(1L));
+
+        assertThrows(BadRequestException.class, () -> service.updateBatch(request, OWNER));
+    }
+
+    @Test
+    void bulkCreateAssignsIdsToTheOwner() {
+        Course first = course("Mechanics");
+        Course second = course("Waves");
+        second.setStatus("in_progress");
+
+        BulkResult<Course> result = inTransaction(() -> service.createBatch(List.of(first, second), OWNER));
+
+        assertEquals(2, result.getSucceeded());
+        assertNotNull(first.getId());
+        assertEquals(first.getId(), result.getResults().get(0).getId());
+        assertEquals(OWNER, database.jdbcTemplate().queryForObject(
+                "SELECT user_id FROM courses WHERE id = ?", Long.class, second.getId()));
+        assertEquals(List.of(Map.of(
+                CounterKeys.COURSES, 2L,
+                CounterKeys.courseStatus("not_started"), 1L,
+                CounterKeys.courseStatus("in_progress"), 1L)), counters.applied());
+        assertEquals(List.of(new UserDataChangedEvent(OWNER, "Course")), events);
+    }
+
+    @Test
+    void bulkDeleteDetachesOnlyTheNotesOfDeletedCourses() {
+        Long own = insert(OWNER, "Mechanics", "not_started", 0);
+        Long foreign = insert(STRANGER, "Optics", "not_started", 0);
+        Long ownNote = insertNote(OWNER, own);
+        Long foreignNote = insertNote(STRANGER, foreign);
+
+        BulkResult<Course> result = inTransaction(() -> service.removeBatchByIdsAndUserId(List.of(own, foreign), OWNER));
+
+        assertEquals(List.of(BulkResult.DELETED, BulkResult.NOT_FOUND),
+                result.getResults().stream().map(BulkResult.Item::getStatus).toList());
+        assertNull(noteCourse(ownNote));
+        assertEquals(foreign, noteCourse(foreignNote));
+        assertEquals(List.of(own), counters.detachedCourses());
+        assertTrue(events.contains(NoteChangedEvent.changed(ownNote)));
+        assertTrue(events.containsAll(List.of(new UserDataChangedEvent(OWNER, "Course"),
+                new UserDataChangedEvent(OWNER, "Note"), new UserDataChangedEvent(OWNER, "Todo"))));
+        assertTrue(events.stream().noneMatch(event -> event.equals(NoteChangedEvent.changed(foreignNote))));
+    }
+
+    private <R> R inTransaction(Supplier<R> work) {
+        return database.transactionTemplate().execute(status -> work.get());
+    }
+
+    private Long insert(Long userId, String title, String status, int progress) {
+        database.jdbcTemplate().update(
+                "INSERT INTO courses (user_id, title, status, progress, created_at) VALUES (?, ?, ?, ?, ?)",
+                userId, title, status, progress, CREATED);
+        return database.jdbcTemplate().queryForObject("SELECT MAX(id) FROM courses", Long.class);
+    }
+
+    private Long insertNote(Long userId, Long courseId) {
+        database.jdbcTemplate().update("INSERT INTO notes (user_id, course_id, title) VALUES (?, ?, 'Note')",
+                userId, courseId);
+        return database.jdbcTemplate().queryForObject("SELECT MAX(id) FROM notes", Long.class);
+    }
+
+    private String status(Long id) {
+        return database.jdbcTemplate().queryForObject("SELECT status FROM courses WHERE id = ?", String.class, id);
+    }
+
+    private Long noteCourse(Long noteId) {
+        return database.jdbcTemplate().queryForObject("SELECT course_id FROM notes WHERE id = ?", Long.class, noteId);
+    }
+
+    private static Course course(String title) {
+        Course course = new Course();
+        course.setTitle(title);
+        return course;
+    }
+}
@@ -0,0 +1,234 @@
+package com.coursemanagement.service.impl;
+
+import com.coursemanagement.exception.BadRequestException;
+import com.coursemanagement.exception.ResourceNotFoundException;
+import com.coursemanagement.mapper.CurriculumCourseMapper;
+import com.coursemanagement.mapper.CurriculumMapper;
+import com.coursemanagement.model.dto.MoveCourseRequest;
+import com.coursemanagement.support.MybatisTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.coursemanagement.service.impl.CurriculumServiceImpl.ORDER_GAP;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CurriculumServiceImplTest {
+
+    private static final Long OWNER = 1L;
+    private static final Long STRANGER = 2L;
+    private static final Long CURRICULUM = 100L;
+
+    private MybatisTestDatabase database;
+    private CurriculumCourseMapper curriculumCourseMapper;
+    private CurriculumServiceImpl service;
+    private final List<Object> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        database = new MybatisTestDatabase("""
+                CREATE TABLE curriculums (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    user_id BIGINT NOT NULL,
+                    title VARCHAR(255) NOT NULL,
+                    description TEXT,
+                    goal TEXT,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )""", """
+                CREATE TABLE curriculum_courses (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    curriculum_id BIGINT NOT NULL,
+                    course_id BIGINT NOT NULL,
+                    order_index INT NOT NULL DEFAULT 0,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )""");
+        database.jdbcTemplate().update("INSERT INTO curriculums (id, user_id, title) VALUES (?, ?, 'Physics')",
+                CURRICULUM, OWNER);
+        curriculumCourseMapper = database.mapper(CurriculumCourseMapper.class);
+        service = new CurriculumServiceImpl(curriculumCourseMapper);
+        ReflectionTestUtils.setField(service, "baseMapper", database.mapper(CurriculumMapper.class));
+        service.setApplicationEventPublisher(events::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void slotBetweenNeighborsTakesTheMiddle() {
+        CurriculumServiceImpl.Slot slot = CurriculumServiceImpl.Slot.nextTo(0, ORDER_GAP, true);
+
+        assertEquals(ORDER_GAP / 2, slot.middle());
+        assertFalse(slot.crowded());
+        assertEquals(slot, CurriculumServiceImpl.Slot.nextTo(ORDER_GAP, 0, false));
+    }
+
+    @Test
+    void slotPastEitherEndLeavesAFullGap() {
+        assertEquals(3 * ORDER_GAP, CurriculumServiceImpl.Slot.nextTo(2 * ORDER_GAP, null, true).middle());
+        assertEquals(-ORDER_GAP, CurriculumServiceImpl.Slot.nextTo(0, null, false).middle());
+    }
+
+    @Test
+    void adjacentKeysLeaveNoSlot() {
+        assertNull(CurriculumServiceImpl.Slot.nextTo(5, 6, true).middle());
+        assertNull(CurriculumServiceImpl.Slot.nextTo(5, 5, true).middle());
+    }
+
+    @Test
+    void slotPastTheIntRangeIsRefused() {
+        assertNull(CurriculumServiceImpl.Slot.nextTo(Integer.MAX_VALUE, null, true).middle());
+        assertNull(CurriculumServiceImpl.Slot.nextTo(Integer.MIN_VALUE, null, false).middle());
+    }
+
+    @Test
+    void slotIsCrowdedBelowTheThreshold() {
+        int threshold = CurriculumServiceImpl.REBALANCE_THRESHOLD;
+        assertTrue(CurriculumServiceImpl.Slot.nextTo(0, 2 * threshold - 1, true).crowded());
+        assertFalse(CurriculumServiceImpl.Slot.nextTo(0, 2 * threshold, true).crowded());
+    }
+
+    @Test
+    void moveTakesTheMiddleKeyAndLeavesTheOthersAlone() {
+        addCourses(10L, 11L, 12L);
+
+        service.moveCourse(CURRICULUM, 12L, after(10L), OWNER);
+
+        assertEquals(List.of(10L, 12L, 11L), courseOrder());
+        assertEquals(List.of(0, ORDER_GAP / 2, ORDER_GAP), orderKeys());
+    }
+
+    @Test
+    void crowdedMoveRespacesInTheSameTransaction() {
+        addCourses(10L, 11L, 12L);
+
+        // Each move halves the gap after course 10; the eighth lands between 0 and 8
+        for (int i = 0; i < 8; i++) {
+            service.moveCourse(CURRICULUM, i % 2 == 0 ? 12L : 11L, after(10L), OWNER);
+        }
+
+        assertEquals(List.of(10L, 11L, 12L), courseOrder());
+        assertEquals(List.of(0, ORDER_GAP, 2 * ORDER_GAP), orderKeys());
+    }
+
+    @Test
+    void moveBetweenAdjacentKeysRespacesFirst() {
+        insertCourse(10L, 0);
+        insertCourse(11L, 1);
+        insertCourse(12L, 2);
+
+        service.moveCourse(CURRICULUM, 12L, after(10L), OWNER);
+
+        assertEquals(List.of(10L, 12L, 11L), courseOrder());
+        assertEquals(List.of(0, ORDER_GAP / 2, ORDER_GAP), orderKeys());
+    }
+
+    @Test
+    void rebalanceSpacesKeysEvenlyInTheirCurrentOrder() {
+        insertCourse(10L, 7);
+        insertCourse(11L, 3);
+        insertCourse(12L, 3);
+        insertCourse(13L, -40);
+
+        assertEquals(4, curriculumCourseMapper.rebalance(CURRICULUM, ORDER_GAP));
+
+        assertEquals(List.of(13L, 11L, 12L, 10L), courseOrder());
+        assertEquals(List.of(0, ORDER_GAP, 2 * ORDER_GAP, 3 * ORDER_GAP), orderKeys());
+    }
+
+    @Test
+    void reorderSpacesCoursesInTheGivenOrder() {
+        addCourses(10L, 11L, 12L);
+
+        service.reorderCourses(CURRICULUM, List.of(12L, 10L, 11L), OWNER);
+
+        assertEquals(List.of(12L, 10L, 11L), courseOrder());
+        assertEquals(List.of(0, ORDER_GAP, 2 * ORDER_GAP), orderKeys());
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void reorderWithACourseOutsideTheCurriculumChangesNothing() {
+        addCourses(10L, 11L);
+
+        assertThrows(BadRequestException.class, () -> database.transactionTemplate().executeWithoutResult(
+                status -> service.reorderCourses(CURRICULUM, List.of(11L, 99L, 10L), OWNER)));
+
+        assertEquals(List.of(10L, 11L), courseOrder());
+        assertEquals(List.of(0, ORDER_GAP), orderKeys());
+    }
+
+    @Test
+    void reorderOfAForeignCurriculumIsNotFound() {
+        addCourses(10L, 11L);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.reorderCourses(CURRICULUM, List.of(11L, 10L), STRANGER));
+        assertEquals(List.of(10L, 11L), courseOrder());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void reorderRejectsEmptyAndDuplicateIds() {
+        assertThrows(BadRequestException.class, () -> service.reorderCourses(CURRICULUM, List.of(), OWNER));
+        assertThrows(BadRequestException.class, () -> service.reorderCourses(CURRICULUM, null, OWNER));
+        assertThrows(BadRequestException.class,
+                () -> service.reorderCourses(CURRICULUM, List.of(10L, 10L), OWNER));
+    }
+
+    @Test
+    void moveInAForeignCurriculumIsNotFound() {
+        addCourses(10L, 11L);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.moveCourse(CURRICULUM, 11L, before(10L), STRANGER));
+        assertEquals(List.of(10L, 11L), courseOrder());
+        assertTrue(events.isEmpty());
+    }
+
+    private void addCourses(Long... courseIds) {
+        for (int i = 0; i < courseIds.length; i++) {
+            insertCourse(courseIds[i], i * ORDER_GAP);
+        }
+    }
+
+    private void insertCourse(Long courseId, int orderIndex) {
+        database.jdbcTemplate().update(
+                "INSERT INTO curriculum_courses (curriculum_id, course_id, order_index) VALUES (?, ?, ?)",
+                CURRICULUM, courseId, orderIndex);
+    }
+
+    private List<Long> courseOrder() {
+        return database.jdbcTemplate().queryForList(
+                "SELECT course_id FROM curriculum_courses WHERE curriculum_id = ? ORDER BY order_index, id",
+                Long.class, CURRICULUM);
+    }
+
+    private List<Integer> orderKeys() {
+        return database.jdbcTemplate().queryForList(
+                "SELECT order_index FROM curriculum_courses WHERE curriculum_id = ? ORDER BY order_index, id",
+                Integer.class, CURRICULUM);
+    }
+
+    private static MoveCourseRequest after(Long courseId) {
+        MoveCourseRequest request = new MoveCourseRequest();
+        request.setAfterCourseId(courseId);
+        return request;
+    }
+
+    private static MoveCourseRequest before(Long courseId) {
+        MoveCourseRequest request = new MoveCourseRequest();
+        request.setBeforeCourseId(courseId);
+        return request;
+    }
+}
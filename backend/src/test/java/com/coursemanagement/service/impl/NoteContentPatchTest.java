@@ -0,0 +1,94 @@
+package com.coursemanagement.service.impl;
+
+import com.coursemanagement.exception.BadRequestException;
+import com.coursemanagement.model.dto.NoteContentPatchRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NoteContentPatchTest {
+
+    @Test
+    void operationsAddressTheBaseContent() {
+        String patched = NoteServiceImpl.applyOperations("hello world", List.of(
+                operation(0, 5, "goodbye"),
+                operation(6, 0, "cruel "),
+                operation(11, 0, "!")));
+
+        assertEquals("goodbye cruel world!", patched);
+    }
+
+    @Test
+    void missingDeleteCountInsertsOnly() {
+        assertEquals("abXc", NoteServiceImpl.applyOperations("abc", List.of(operation(2, null, "X"))));
+    }
+
+    @Test
+    void missingInsertDeletesOnly() {
+        assertEquals("ac", NoteServiceImpl.applyOperations("abc", List.of(operation(1, 1, null))));
+    }
+
+    @Test
+    void nullBaseIsEmpty() {
+        assertEquals("new", NoteServiceImpl.applyOperations(null, List.of(operation(0, 0, "new"))));
+    }
+
+    @Test
+    void adjacentOperationsAreAllowed() {
+        assertEquals("XY", NoteServiceImpl.applyOperations("ab", List.of(operation(0, 1, "X"), operation(1, 1, "Y"))));
+    }
+
+    @Test
+    void outOfOrderOperationsAreRejected() {
+        assertThrows(BadRequestException.class, () -> NoteServiceImpl.applyOperations("abcdef",
+                List.of(operation(3, 0, "X"), operation(1, 0, "Y"))));
+    }
+
+    @Test
+    void overlappingOperationsAreRejected() {
+        assertThrows(BadRequestException.class, () -> NoteServiceImpl.applyOperations("abcdef",
+                List.of(operation(1, 3, "X"), operation(2, 0, "Y"))));
+    }
+
+    @Test
+    void operationsPastTheEndAreRejected() {
+        assertThrows(BadRequestException.class, () -> NoteServiceImpl.applyOperations("abc",
+                List.of(operation(2, 2, null))));
+        assertThrows(BadRequestException.class, () -> NoteServiceImpl.applyOperations("abc",
+                List.of(operation(4, 0, "X"))));
+    }
+
+    @Test
+    void hugeOffsetsAreRejectedWithoutOverflow() {
+        assertThrows(BadRequestException.class, () -> NoteServiceImpl.applyOperations("abc",
+                List.of(operation(1, Integer.MAX_VALUE, null))));
+        assertThrows(BadRequestException.class, () -> NoteServiceImpl.applyOperations("abc",
+                List.of(operation(Integer.MAX_VALUE, Integer.MAX_VALUE, null))));
+    }
+
+    @Test
+    void positionsAreUtf16CodeUnits() {
+        // U+1F600 takes two code units, so "b" sits at index 3
+        assertEquals("a\uD83D\uDE00X", NoteServiceImpl.applyOperations("a\uD83D\uDE00b",
+                List.of(operation(3, 1, "X"))));
+    }
+
+    @Test
+    void splittingASurrogatePairIsRejected() {
+        assertThrows(BadRequestException.class, () -> NoteServiceImpl.applyOperations("a\uD83D\uDE00b",
+                List.of(operation(2, 0, "X"))));
+        assertThrows(BadRequestException.class, () -> NoteServiceImpl.applyOperations("a\uD83D\uDE00b",
+                List.of(operation(0, 2, null))));
+    }
+
+    private static NoteContentPatchRequest.Operation operation(int position, Integer deleteCount, String insert) {
+        NoteContentPatchRequest.Operation operation = new NoteContentPatchRequest.Operation();
+        operation.setPosition(position);
+        operation.setDeleteCount(deleteCount);
+        operation.setInsert(insert);
+        return operation;
+    }
+}
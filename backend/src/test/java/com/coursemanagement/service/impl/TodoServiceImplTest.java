@@ -0,0 +1,229 @@
+package com.coursemanagement.service.impl;
+
+import com.coursemanagement.event.UserDataChangedEvent;
+import com.coursemanagement.exception.ResourceNotFoundException;
+import com.coursemanagement.mapper.TodoMapper;
+import com.coursemanagement.model.dto.BulkResult;
+import com.coursemanagement.model.dto.TodoBulkUpdateRequest;
+import com.coursemanagement.model.entity.Todo;
+import com.coursemanagement.support.MybatisTestDatabase;
+import com.coursemanagement.support.RecordingUserCounterService;
+import com.coursemanagement.util.CounterKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TodoServiceImplTest {
+
+    private static final Long OWNER = 1L;
+    private static final Long STRANGER = 2L;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 15, 9, 30);
+
+    private MybatisTestDatabase database;
+    private TodoServiceImpl service;
+    private final List<Object> events = new ArrayList<>();
+    private final RecordingUserCounterService counters = new RecordingUserCounterService();
+
+    @BeforeEach
+    void setUp() {
+        database = new MybatisTestDatabase("""
+                CREATE TABLE todos (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    user_id BIGINT NOT NULL,
+                    course_id BIGINT,
+                    title VARCHAR(255) NOT NULL,
+                    description TEXT,
+                    priority VARCHAR(20) DEFAULT 'medium',
+                    status VARCHAR(50) DEFAULT 'pending',
+                    due_date TIMESTAMP NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )""");
+        service = new TodoServiceImpl();
+        ReflectionTestUtils.setField(service, "baseMapper", database.mapper(TodoMapper.class));
+        service.setApplicationEventPublisher(events::add);
+        service.setUserCounterService(counters);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void updateReturnsThePersistedRow() {
+        Long id = insert(OWNER, "Read chapter 3", "pending");
+        Todo changes = new Todo();
+        changes.setId(id);
+        changes.setTitle("Read chapter 4");
+
+        Todo updated = inTransaction(() -> service.updateByIdAndUserId(changes, OWNER));
+
+        assertEquals("Read chapter 4", updated.getTitle());
+        assertEquals("pending", updated.getStatus());
+        assertEquals("medium", updated.getPriority());
+        assertEquals(CREATED, updated.getCreatedAt());
+        assertEquals("Read chapter 4", title(id));
+        assertTrue(counters.applied().isEmpty());
+        assertEquals(List.of(new UserDataChangedEvent(OWNER, "Todo")), events);
+    }
+
+    @Test
+    void statusChangeReturnsTheRowAndMovesTheStatusCounter() {
+        Long id = insert(OWNER, "Read chapter 3", "pending");
+
+        Todo updated = inTransaction(() -> service.updateStatus(id, "completed", OWNER));
+
+        assertEquals("completed", updated.getStatus());
+        assertEquals("Read chapter 3", updated.getTitle());
+        assertEquals(CREATED, updated.getCreatedAt());
+        assertEquals("completed", status(id));
+        assertEquals(List.of(Map.of(
+                CounterKeys.TODOS, 0L,
+                CounterKeys.todoStatus("pending"), -1L,
+                CounterKeys.todoStatus("completed"), 1L)), counters.applied());
+    }
+
+    @Test
+    void foreignRowIsNotFoundAndLeftAlone() {
+        Long id = insert(STRANGER, "Not yours", "pending");
+        Todo changes = new Todo();
+        changes.setId(id);
+        changes.setTitle("Taken over");
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> inTransaction(() -> service.updateByIdAndUserId(changes, OWNER)));
+        assertThrows(ResourceNotFoundException.class,
+                () -> inTransaction(() -> service.updateStatus(id, "completed", OWNER)));
+
+        assertEquals("Not yours", title(id));
+        assertEquals("pending", status(id));
+        assertTrue(counters.applied().isEmpty());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void missingRowIsNotFound() {
+        Todo changes = new Todo();
+        changes.setId(99L);
+        changes.setTitle("Nothing here");
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> inTransaction(() -> service.updateByIdAndUserId(changes, OWNER)));
+        assertThrows(ResourceNotFoundException.class,
+                () -> inTransaction(() -> service.updateStatus(99L, "completed", OWNER)));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void bulkUpdateReportsEachIdInRequestOrder() {
+        Long first = insert(OWNER, "First", "pending");
+        Long foreign = insert(STRANGER, "Foreign", "pending");
+        Long second = insert(OWNER, "Second", "in_progress");
+        TodoBulkUpdateRequest request = new TodoBulkUpdateRequest();
+        request.setIds(List.of(second, foreign, 99L, first));
+        request.setStatus("completed");
+
+        BulkResult<Todo> result = inTransaction(() -> service.updateBatch(request, OWNER));
+
+        assertEquals(List.of(BulkResult.UPDATED, BulkResult.NOT_FOUND, BulkResult.NOT_FOUND, BulkResult.UPDATED),
+                result.getResults().stream().map(BulkResult.Item::getStatus).toList());
+        assertEquals(2, result.getSucceeded());
+        assertEquals(2, result.getFailed());
+        Todo updated = result.getResults().get(0).getData();
+        assertEquals("Second", updated.getTitle());
+        assertEquals("completed", updated.getStatus());
+        assertEquals(CREATED, updated.getCreatedAt());
+        assertEquals("completed", status(first));
+        assertEquals("pending", status(foreign));
+        assertEquals(List.of(Map.of(
+                CounterKeys.TODOS, 0L,
+                CounterKeys.todoStatus("pending"), -1L,
+                CounterKeys.todoStatus("in_progress"), -1L,
+                CounterKeys.todoStatus("completed"), 2L)), counters.applied());
+        assertEquals(List.of(new UserDataChangedEvent(OWNER, "Todo")), events);
+    }
+
+    @Test
+    void bulkUpdateOfNoOwnedRowsWritesNothing() {
+        Long foreign = insert(STRANGER, "Foreign", "pending");
+        TodoBulkUpdateRequest request = new TodoBulkUpdateRequest();
+        request.setIds(List.of(foreign));
+        request.setStatus("completed");
+
+        BulkResult<Todo> result = inTransaction(() -> service.updateBatch(request, OWNER));
+
+        assertEquals(0, result.getSucceeded());
+        assertEquals("pending", status(foreign));
+        assertTrue(counters.applied().isEmpty());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void bulkCreateAssignsIdsAndCountsTheRows() {
+        Todo first = todo("First", null);
+        Todo second = todo("Second", "completed");
+
+        BulkResult<Todo> result = inTransaction(() -> service.createBatch(List.of(first, second), OWNER));
+
+        assertEquals(List.of(BulkResult.CREATED, BulkResult.CREATED),
+                result.getResults().stream().map(BulkResult.Item::getStatus).toList());
+        assertEquals("First", title(result.getResults().get(0).getId()));
+        assertEquals(OWNER, first.getUserId());
+        assertEquals(List.of(Map.of(
+                CounterKeys.TODOS, 2L,
+                CounterKeys.todoStatus("pending"), 1L,
+                CounterKeys.todoStatus("completed"), 1L)), counters.applied());
+    }
+
+    @Test
+    void bulkRemoveDeletesOnlyOwnedRows() {
+        Long own = insert(OWNER, "Mine", "completed");
+        Long foreign = insert(STRANGER, "Foreign", "pending");
+
+        BulkResult<Todo> result = inTransaction(() -> service.removeBatchByIdsAndUserId(List.of(own, foreign), OWNER));
+
+        assertEquals(List.of(BulkResult.DELETED, BulkResult.NOT_FOUND),
+                result.getResults().stream().map(BulkResult.Item::getStatus).toList());
+        assertEquals(1, database.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM todos", Integer.class));
+        assertEquals(List.of(Map.of(
+                CounterKeys.TODOS, -1L,
+                CounterKeys.todoStatus("completed"), -1L)), counters.applied());
+    }
+
+    private <R> R inTransaction(Supplier<R> work) {
+        return database.transactionTemplate().execute(status -> work.get());
+    }
+
+    private Long insert(Long userId, String title, String status) {
+        database.jdbcTemplate().update("INSERT INTO todos (user_id, title, status, created_at) VALUES (?, ?, ?, ?)",
+                userId, title, status, CREATED);
+        return database.jdbcTemplate().queryForObject("SELECT MAX(id) FROM todos", Long.class);
+    }
+
+    private String title(Long id) {
+        return database.jdbcTemplate().queryForObject("SELECT title FROM todos WHERE id = ?", String.class, id);
+    }
+
+    private String status(Long id) {
+        return database.jdbcTemplate().queryForObject("SELECT status FROM todos WHERE id = ?", String.class, id);
+    }
+
+    private static Todo todo(String title, String status) {
+        Todo todo = new Todo();
+        todo.setTitle(title);
+        todo.setStatus(status);
+        return todo;
+    }
+}
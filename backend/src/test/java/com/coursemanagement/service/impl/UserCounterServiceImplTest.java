@@ -0,0 +1,158 @@
+package com.coursemanagement.service.impl;
+
+import com.coursemanagement.mapper.UserCounterMapper;
+import com.coursemanagement.support.MybatisTestDatabase;
+import com.coursemanagement.util.CounterKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserCounterServiceImplTest {
+
+    private static final Long USER = 1L;
+    private static final Long OTHER = 2L;
+
+    private MybatisTestDatabase database;
+    private UserCounterServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        database = new MybatisTestDatabase("""
+                CREATE TABLE user_counters (
+                    user_id BIGINT NOT NULL,
+                    counter_key VARCHAR(100) NOT NULL,
+                    counter_value BIGINT NOT NULL DEFAULT 0,
+                    PRIMARY KEY (user_id, counter_key)
+                )""", """
+                CREATE TABLE courses (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    user_id BIGINT NOT NULL,
+                    status VARCHAR(50)
+                )""", """
+                CREATE TABLE todos (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    user_id BIGINT NOT NULL,
+                    status VARCHAR(50)
+                )""", """
+                CREATE TABLE notes (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    user_id BIGINT NOT NULL,
+                    course_id BIGINT
+                )""", """
+                CREATE TABLE curriculums (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    user_id BIGINT NOT NULL
+                )""", """
+                CREATE TABLE attachments (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    note_id BIGINT NOT NULL,
+                    file_size BIGINT
+                )""");
+        service = new UserCounterServiceImpl(database.mapper(UserCounterMapper.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void applyCreatesThenAddsToCounters() {
+        service.apply(USER, Map.of(CounterKeys.COURSES, 2L, CounterKeys.courseStatus("completed"), 1L));
+        service.apply(USER, Map.of(CounterKeys.COURSES, -1L, CounterKeys.TODOS, 3L));
+        service.apply(OTHER, Map.of(CounterKeys.COURSES, 5L));
+
+        assertEquals(Map.of(CounterKeys.COURSES, 1L, CounterKeys.courseStatus("completed"), 1L,
+                CounterKeys.TODOS, 3L), service.getCounters(USER));
+        assertEquals(Map.of(CounterKeys.COURSES, 5L), service.getCounters(OTHER));
+    }
+
+    @Test
+    void zeroDeltasAreNotWritten() {
+        service.apply(USER, Map.of(CounterKeys.COURSES, 0L));
+        service.apply(USER, Map.of());
+
+        assertEquals(0, rowCount());
+    }
+
+    @Test
+    void countersThatDropToZeroAreHidden() {
+        service.apply(USER, Map.of(CounterKeys.NOTES, 1L, CounterKeys.TODOS, 1L));
+        service.apply(USER, Map.of(CounterKeys.NOTES, -1L));
+
+        assertEquals(Map.of(CounterKeys.TODOS, 1L), service.getCounters(USER));
+    }
+
+    @Test
+    void reconcileRepairsDriftedAndStaleCounters() {
+        Long course = insert("INSERT INTO courses (user_id, status) VALUES (?, 'in_progress')", USER);
+        insert("INSERT INTO courses (user_id, status) VALUES (?, 'completed')", OTHER);
+        Long note = insert("INSERT INTO notes (user_id, course_id) VALUES (?, " + course + ")", USER);
+        database.jdbcTemplate().update("INSERT INTO attachments (note_id, file_size) VALUES (?, 300), (?, 200)",
+                note, note);
+        // The course count is right, the status count drifted and every todo is gone
+        service.apply(USER, Map.of(CounterKeys.COURSES, 1L, CounterKeys.courseStatus("in_progress"), 4L,
+                CounterKeys.TODOS, 2L));
+        database.jdbcTemplate().update(
+                "INSERT INTO user_counters (user_id, counter_key, counter_value) VALUES (?, 'notes.course.99', 3)", USER);
+
+        int drifted = reconcile();
+
+        assertEquals(Map.of(
+                CounterKeys.COURSES, 1L,
+                CounterKeys.courseStatus("in_progress"), 1L,
+                CounterKeys.NOTES, 1L,
+                CounterKeys.notesInCourse(course), 1L,
+                CounterKeys.ATTACHMENTS, 2L,
+                CounterKeys.STORAGE_BYTES, 500L,
+                CounterKeys.attachmentsOnNote(note), 2L), service.getCounters(USER));
+        assertEquals(8, drifted);
+        assertEquals(8, rowCount());
+        assertTrue(service.getCounters(OTHER).isEmpty());
+        assertEquals(0, reconcile());
+    }
+
+    @Test
+    void subtractHelpersTakeTheCascadedCountsOff() {
+        Long kept = insert("INSERT INTO notes (user_id, course_id) VALUES (?, 10)", USER);
+        insert("INSERT INTO notes (user_id, course_id) VALUES (?, 10)", USER);
+        insert("INSERT INTO notes (user_id, course_id) VALUES (?, 11)", USER);
+        insert("INSERT INTO notes (user_id, course_id) VALUES (?, 10)", OTHER);
+        database.jdbcTemplate().update("INSERT INTO attachments (note_id, file_size) VALUES (?, 40), (?, 60)",
+                kept, kept);
+        Map<String, Long> deltas = new HashMap<>(Map.of(CounterKeys.NOTES, -1L));
+
+        service.subtractNotesInCourses(USER, List.of(10L, 12L), deltas);
+        service.subtractAttachmentsOfNotes(List.of(kept), deltas);
+        service.subtractNotesInCourses(USER, List.of(), deltas);
+        service.subtractAttachmentsOfNotes(List.of(), deltas);
+
+        assertEquals(Map.of(
+                CounterKeys.NOTES, -1L,
+                CounterKeys.notesInCourse(10L), -2L,
+                CounterKeys.attachmentsOnNote(kept), -2L,
+                CounterKeys.ATTACHMENTS, -2L,
+                CounterKeys.STORAGE_BYTES, -100L), deltas);
+    }
+
+    private int reconcile() {
+        return database.transactionTemplate().execute(status -> service.reconcile(USER));
+    }
+
+    private Long insert(String sql, Long userId) {
+        database.jdbcTemplate().update(sql, userId);
+        String table = sql.split(" ")[2];
+        return database.jdbcTemplate().queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+    }
+
+    private int rowCount() {
+        return database.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM user_counters", Integer.class);
+    }
+}
@@ -0,0 +1,80 @@
+package com.coursemanagement.support;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.config.GlobalConfig;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
+import com.baomidou.mybatisplus.extension.spring.MybatisSqlSessionFactoryBean;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * An H2 database in MySQL mode with MyBatis-Plus wired the way the application configures it,
+ * so services can be tested against real SQL without starting the context. Mappers join the
+ * transactions of {@link #transactionTemplate()}.
+ */
+public class MybatisTestDatabase implements AutoCloseable {
+
+    private final EmbeddedDatabase database;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final SqlSessionTemplate sqlSessionTemplate;
+
+    public MybatisTestDatabase(String... ddl) {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("SET MODE MySQL");
+        for (String statement : ddl) {
+            jdbcTemplate.execute(statement);
+        }
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        GlobalConfig globalConfig = GlobalConfigUtils.defaults();
+        globalConfig.setBanner(false);
+        MybatisSqlSessionFactoryBean factoryBean = new MybatisSqlSessionFactoryBean();
+        factoryBean.setGlobalConfig(globalConfig);
+        factoryBean.setDataSource(database);
+        factoryBean.setConfiguration(configuration);
+        factoryBean.setTypeAliasesPackage("com.coursemanagement.model.entity");
+        try {
+            factoryBean.setMapperLocations(new PathMatchingResourcePatternResolver()
+                    .getResources("classpath*:/mapper/**/*.xml"));
+            sqlSessionFactory = factoryBean.getObject();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not build the MyBatis session factory", e);
+        }
+        sqlSessionTemplate = new SqlSessionTemplate(sqlSessionFactory);
+    }
+
+    public <M> M mapper(Class<M> type) {
+        if (!sqlSessionFactory.getConfiguration().hasMapper(type)) {
+            sqlSessionFactory.getConfiguration().addMapper(type);
+        }
+        return sqlSessionTemplate.getMapper(type);
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public TransactionTemplate transactionTemplate() {
+        return transactionTemplate;
+    }
+
+    @Override
+    public void close() {
+        database.shutdown();
+    }
+}
@@ -0,0 +1,54 @@
+package com.coursemanagement.support;
+
+import com.coursemanagement.service.UserCounterService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the deltas services hand to the counters instead of writing them.
+ */
+public class RecordingUserCounterService implements UserCounterService {
+
+    private final List<Map<String, Long>> applied = new ArrayList<>();
+    private final List<Long> detachedCourses = new ArrayList<>();
+
+    public List<Map<String, Long>> applied() {
+        return applied;
+    }
+
+    /**
+     * Courses whose per-course note counters were subtracted.
+     */
+    public List<Long> detachedCourses() {
+        return detachedCourses;
+    }
+
+    @Override
+    public void apply(Long userId, Map<String, Long> deltas) {
+        applied.add(new HashMap<>(deltas));
+    }
+
+    @Override
+    public Map<String, Long> getCounters(Long userId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int reconcile(Long userId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void subtractAttachmentsOfNotes(Collection<Long> noteIds, Map<String, Long> deltas) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void subtractNotesInCourses(Long userId, Collection<Long> courseIds, Map<String, Long> deltas) {
+        detachedCourses.addAll(courseIds);
+    }
+}
@@ -0,0 +1,139 @@
+package com.coursemanagement.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.coursemanagement.exception.BadRequestException;
+import com.coursemanagement.mapper.TodoMapper;
+import com.coursemanagement.model.dto.CursorPage;
+import com.coursemanagement.model.entity.Todo;
+import com.coursemanagement.service.impl.TodoServiceImpl;
+import com.coursemanagement.support.MybatisTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetPaginationTest {
+
+    private static final Long USER = 1L;
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private MybatisTestDatabase database;
+    private TodoServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        database = new MybatisTestDatabase("""
+                CREATE TABLE todos (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    user_id BIGINT NOT NULL,
+                    course_id BIGINT,
+                    title VARCHAR(255) NOT NULL,
+                    description TEXT,
+                    priority VARCHAR(20) DEFAULT 'medium',
+                    status VARCHAR(50) DEFAULT 'pending',
+                    due_date TIMESTAMP NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )""");
+        service = new TodoServiceImpl();
+        ReflectionTestUtils.setField(service, "baseMapper", database.mapper(TodoMapper.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void pagesWalkEveryRowNewestFirstAcrossTies() {
+        // Three rows share a timestamp, so the id has to break the tie across page boundaries
+        List<Long> expected = new ArrayList<>();
+        expected.add(insert(USER, NOON.plusNanos(250_000)));
+        Long tieA = insert(USER, NOON);
+        Long tieB = insert(USER, NOON);
+        Long tieC = insert(USER, NOON);
+        expected.addAll(List.of(tieC, tieB, tieA));
+        expected.add(insert(USER, NOON.minusDays(1)));
+        insert(2L, NOON); // another user's row must never show up
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Todo> page = page(cursor, 2);
+            page.getItems().forEach(todo -> seen.add(todo.getId()));
+            assertEquals(page.getNextCursor() != null, page.isHasMore());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void fullLastPageHasNoCursor() {
+        insert(USER, NOON);
+        insert(USER, NOON.minusHours(1));
+
+        CursorPage<Todo> page = page(null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void emptyCursorStartsAtTheTop() {
+        Long newest = insert(USER, NOON);
+        insert(USER, NOON.minusHours(1));
+
+        CursorPage<Todo> page = page("", 1);
+
+        assertEquals(newest, page.getItems().get(0).getId());
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    void limitDefaultsAndBounds() {
+        assertEquals(KeysetPagination.DEFAULT_LIMIT, KeysetPagination.resolveLimit(null));
+        assertEquals(KeysetPagination.MAX_LIMIT, KeysetPagination.resolveLimit(KeysetPagination.MAX_LIMIT));
+        assertThrows(BadRequestException.class, () -> KeysetPagination.resolveLimit(0));
+        assertThrows(BadRequestException.class, () -> KeysetPagination.resolveLimit(KeysetPagination.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThrows(BadRequestException.class, () -> page("not base64!", 10));
+        assertThrows(BadRequestException.class, () -> page(encoded("no separator"), 10));
+        assertThrows(BadRequestException.class, () -> page(encoded("yesterday|5"), 10));
+        assertThrows(BadRequestException.class, () -> page(encoded("2024-03-01T12:00|five"), 10));
+    }
+
+    private CursorPage<Todo> page(String cursor, Integer limit) {
+        LambdaQueryWrapper<Todo> query = new LambdaQueryWrapper<Todo>().eq(Todo::getUserId, USER);
+        return KeysetPagination.page(service, query, Todo::getCreatedAt, Todo::getId, cursor, limit);
+    }
+
+    private Long insert(Long userId, LocalDateTime createdAt) {
+        database.jdbcTemplate().update("INSERT INTO todos (user_id, title, created_at) VALUES (?, 'Todo', ?)",
+                userId, createdAt);
+        return database.jdbcTemplate().queryForObject("SELECT MAX(id) FROM todos", Long.class);
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}